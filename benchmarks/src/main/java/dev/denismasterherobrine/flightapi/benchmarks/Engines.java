@@ -0,0 +1,19 @@
+package dev.denismasterherobrine.flightapi.benchmarks;
+
+import dev.denismasterherobrine.flightapi.manager.ConcurrentFlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightServices;
+import dev.denismasterherobrine.flightapi.manager.SynchronizedFlightEngine;
+
+// Same names as -Dflightapi.engine, but every benchmark state gets an engine of its own
+final class Engines {
+    private Engines() {}
+
+    static FlightEngine create(String name, FlightServices services) {
+        return switch (name) {
+            case "concurrent" -> new ConcurrentFlightEngine(services);
+            case "synchronized" -> new SynchronizedFlightEngine(services);
+            default -> throw new IllegalArgumentException("Unknown flight engine: " + name);
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package dev.denismasterherobrine.flightapi.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.mojang.authlib.GameProfile;
+
+import dev.denismasterherobrine.flightapi.manager.FlightAbilitySync;
+import dev.denismasterherobrine.flightapi.manager.FlightManager;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.player.PlayerAbilities;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Abilities packets per server tick. Every tick, each player's flight is toggled {@code changesPerTick} times and the
+ * tick is flushed. Survival players get at most one packet per tick, none if the changes cancel out, and creative
+ * players get none at all because vanilla already lets them fly. Read {@code packets} and {@code skipped} per
+ * {@code ticks} from the secondary results.
+ * Players are stand-ins with real {@link PlayerAbilities}; no server or client is involved, packets are counted
+ * where they would be sent.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightAbilitySyncBenchmark {
+    private static final int PLAYERS = 256;
+
+    @Param({"0", "50", "100"})
+    public int creativePercent;
+
+    @Param({"1", "2", "3"})
+    public int changesPerTick;
+
+    private final FlightManager manager = FlightManager.getInstance();
+    private final ServerPlayerEntity[] players = new ServerPlayerEntity[PLAYERS];
+    private boolean enabled;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Player classes can't be loaded before the registries are
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        int creative = PLAYERS * creativePercent / 100;
+        for (int p = 0; p < PLAYERS; p++) {
+            players[p] = player(new UUID(0x466c69676874L, p), p < creative);
+        }
+        manager.getAbilitySync().clear();
+    }
+
+    // Stub-only, so the mocks don't record the millions of calls made on them
+    private static ServerPlayerEntity player(UUID uuid, boolean creative) {
+        PlayerAbilities abilities = new PlayerAbilities();
+        abilities.creativeMode = creative;
+        abilities.allowFlying = creative;
+
+        ServerPlayerEntity player = mock(ServerPlayerEntity.class, withSettings().stubOnly());
+        when(player.getGameProfile()).thenReturn(new GameProfile(uuid, "player" + uuid.getLeastSignificantBits()));
+        when(player.getAbilities()).thenReturn(abilities);
+        return player;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Packets {
+        public long ticks;
+        public long packets;
+        public long suppressed;
+        public long skipped;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+            packets = 0;
+            suppressed = 0;
+            skipped = 0;
+        }
+    }
+
+    @Benchmark
+    public void tick(Packets counters) {
+        FlightAbilitySync sync = manager.getAbilitySync();
+        long sent = sync.packetsSent() + sync.payloadsSent();
+        long suppressed = sync.packetsSuppressed();
+        long skipped = sync.skippedAlwaysFlying();
+
+        for (ServerPlayerEntity player : players) {
+            boolean state = enabled;
+            for (int c = 0; c < changesPerTick; c++) {
+                state = !state;
+                manager.setPlayerFlightEnabled(player, state);
+            }
+        }
+        if ((changesPerTick & 1) == 1) {
+            enabled = !enabled;
+        }
+        manager.flushTick();
+
+        counters.ticks++;
+        counters.packets += sync.packetsSent() + sync.payloadsSent() - sent;
+        counters.suppressed += sync.packetsSuppressed() - suppressed;
+        counters.skipped += sync.skippedAlwaysFlying() - skipped;
+    }
+}
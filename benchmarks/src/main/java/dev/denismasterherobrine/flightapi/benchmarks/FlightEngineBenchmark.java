@@ -0,0 +1,127 @@
+package dev.denismasterherobrine.flightapi.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+import dev.denismasterherobrine.flightapi.manager.FlightServices;
+import dev.denismasterherobrine.flightapi.manager.PlayerFlightSnapshot;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Ownership churn and reads against the engines directly, without a server.
+ * Every player starts with {@code contenders} requests, one owner and the rest queued. A churn operation releases the
+ * owner and requests again for the same mod, so the next request takes over and the queue keeps its depth.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightEngineBenchmark {
+    private static final int PLAYERS = 1024;
+    private static final int MODS = 64;
+
+    @Param({"concurrent", "synchronized"})
+    public String engineName;
+
+    @Param({"1", "4", "16", "64"})
+    public int contenders;
+
+    private FlightEngine engine;
+    private final UUID[] players = new UUID[PLAYERS];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FlightServices services = new FlightServices();
+        engine = Engines.create(engineName, services);
+
+        int[] mods = new int[MODS];
+        for (int m = 0; m < MODS; m++) {
+            mods[m] = services.getModRegistry().register("mod" + m);
+        }
+        for (int p = 0; p < PLAYERS; p++) {
+            players[p] = new UUID(0x466c69676874L, p);
+            for (int c = 0; c < contenders; c++) {
+                engine.request(mods[c], players[p], FlightEngine.DEFAULT_PRIORITY, false, 0);
+            }
+        }
+    }
+
+    // Each thread walks the players from its own offset, so threads only meet on the same player now and then
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setup(ThreadParams params) {
+            next = params.getThreadIndex() * (PLAYERS / Math.max(1, params.getThreadCount()));
+        }
+
+        UUID next(UUID[] players) {
+            return players[next++ & (PLAYERS - 1)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public FlightRequestResult churn(Cursor cursor) {
+        return handOff(cursor.next(players));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public FlightRequestResult churnFourThreads(Cursor cursor) {
+        return handOff(cursor.next(players));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int ownerReads(Cursor cursor) {
+        return engine.owner(cursor.next(players));
+    }
+
+    // Shared until the next change, so this is the cost of a lookup and nothing else
+    @Benchmark
+    public FlightQueueView queueView(Cursor cursor) {
+        return engine.queueView(cursor.next(players));
+    }
+
+    // Copies owner and queue under the player's lock, what saving and relogging pay
+    @Benchmark
+    public PlayerFlightSnapshot snapshot(Cursor cursor) {
+        return engine.snapshot(cursor.next(players));
+    }
+
+    // Readers on the same players while ownership keeps moving, the way a HUD mod would poll during handoffs
+    @Benchmark
+    @Group("readWhileChurning")
+    @GroupThreads(3)
+    public int readWhileChurning(Cursor cursor) {
+        return engine.owner(cursor.next(players));
+    }
+
+    @Benchmark
+    @Group("readWhileChurning")
+    @GroupThreads(1)
+    public FlightRequestResult churnWhileRead(Cursor cursor) {
+        return handOff(cursor.next(players));
+    }
+
+    private FlightRequestResult handOff(UUID player) {
+        int owner = engine.owner(player);
+        if (owner == FlightModRegistry.NONE) {
+            // Another thread is between its release and request of the only contender
+            return FlightRequestResult.REJECTED;
+        }
+
+        engine.release(owner, player);
+        return engine.request(owner, player, FlightEngine.DEFAULT_PRIORITY, false, 0);
+    }
+}
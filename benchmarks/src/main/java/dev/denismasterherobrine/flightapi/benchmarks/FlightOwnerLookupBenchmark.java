@@ -0,0 +1,74 @@
+package dev.denismasterherobrine.flightapi.benchmarks;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightEngines;
+import dev.denismasterherobrine.flightapi.manager.FlightManager;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Allocation profile of the owner lookups the mixins and HUD mods call every tick. Compare
+ * {@code gc.alloc.rate.norm} of the Optional-based {@code getCurrentOwner}, the lookup every caller used before
+ * the handle-based variants, against {@code currentOwnerOrNull} and {@code currentOwnerHandle}, which must stay at 0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightOwnerLookupBenchmark {
+    private static final int PLAYERS = 1024;
+
+    @Param({"concurrent", "synchronized"})
+    public String engineName;
+
+    private final FlightManager manager = FlightManager.getInstance();
+    private final UUID[] players = new UUID[PLAYERS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        FlightEngines.select(engineName);
+        FlightEngine engine = FlightEngines.current();
+
+        int owner = manager.registerMod("owner");
+        int waiting = manager.registerMod("waiting");
+        for (int p = 0; p < PLAYERS; p++) {
+            players[p] = new UUID(0x466c69676874L, p);
+            // Every other player is owned, so lookups that find nobody are measured too
+            if ((p & 1) == 0) {
+                engine.request(owner, players[p], FlightEngine.DEFAULT_PRIORITY, false, 0);
+                engine.request(waiting, players[p], FlightEngine.DEFAULT_PRIORITY, false, 0);
+            }
+        }
+    }
+
+    @Benchmark
+    public Optional<String> getCurrentOwner() {
+        return manager.getCurrentOwner(nextPlayer());
+    }
+
+    @Benchmark
+    public String currentOwnerOrNull() {
+        return manager.currentOwnerOrNull(nextPlayer());
+    }
+
+    @Benchmark
+    public int currentOwnerHandle() {
+        return manager.currentOwnerHandle(nextPlayer());
+    }
+
+    @Benchmark
+    public boolean isOwned() {
+        return manager.isOwned(nextPlayer());
+    }
+
+    private UUID nextPlayer() {
+        return players[next++ & (PLAYERS - 1)];
+    }
+}
@@ -0,0 +1,111 @@
+package dev.denismasterherobrine.flightapi.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightServices;
+import dev.denismasterherobrine.flightapi.persistence.FlightStore;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Saving and loading the flight state of a whole player base. Each player owns flight on a lease with two requests
+ * queued behind it. {@code saveAll} is a full save including the wait for the writer thread, like on shutdown;
+ * {@code loadAll} restores every player from disk into an empty engine, like all of them joining at once.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlightStoreBenchmark {
+    @Param({"10000"})
+    public int playerCount;
+
+    @Param({"concurrent", "synchronized"})
+    public String engineName;
+
+    private final FlightServices services = new FlightServices();
+    private FlightEngine saved;
+    private FlightEngine loaded;
+    private FlightStore store;
+    private UUID[] players;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("flightapi-bench");
+        saved = Engines.create(engineName, services);
+
+        int jetpack = services.getModRegistry().register("jetpack");
+        int spell = services.getModRegistry().register("levitation_spell");
+        int ring = services.getModRegistry().register("flight_ring");
+
+        players = new UUID[playerCount];
+        for (int p = 0; p < playerCount; p++) {
+            players[p] = new UUID(0x466c69676874L, p);
+            saved.request(jetpack, players[p], 10, false, 1200);
+            saved.request(spell, players[p], FlightEngine.DEFAULT_PRIORITY, false, 0);
+            saved.request(ring, players[p], FlightEngine.DEFAULT_PRIORITY, false, 0);
+        }
+
+        // Puts the files in place for loadAll, whichever benchmark runs first
+        new FlightStore(saved, services, directory).close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Save {
+        @Setup(Level.Invocation)
+        public void markEveryoneDirty(FlightStoreBenchmark benchmark) {
+            for (UUID player : benchmark.players) {
+                benchmark.services.markDirty(player);
+            }
+            benchmark.store = new FlightStore(benchmark.saved, benchmark.services, benchmark.directory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Load {
+        @Setup(Level.Invocation)
+        public void emptyEngine(FlightStoreBenchmark benchmark) {
+            benchmark.loaded = Engines.create(benchmark.engineName, benchmark.services);
+            benchmark.store = new FlightStore(benchmark.loaded, benchmark.services, benchmark.directory);
+        }
+
+        @TearDown(Level.Invocation)
+        public void closeStore(FlightStoreBenchmark benchmark) {
+            // Restored leases mark their players dirty; the files already hold that, so closing only stops the writer
+            benchmark.services.drainDirty(player -> {});
+            benchmark.store.close();
+        }
+    }
+
+    @Benchmark
+    public void saveAll(Save save) {
+        store.close();
+    }
+
+    @Benchmark
+    public int loadAll(Load load) {
+        for (UUID player : players) {
+            store.loadPlayer(player);
+        }
+        return loaded.trackedPlayerCount();
+    }
+}
@@ -1,10 +1,11 @@
 package dev.denismasterherobrine.flightapi;
 
-import dev.denismasterherobrine.flightapi.command.FlightAPICommand;
+import dev.denismasterherobrine.flightapi.manager.FlightEngines;
 
 public final class FlightMain {
     public static final String MOD_ID = "flightapi";
 
     public static void init() {
+        FlightEngines.selectFromSystemProperties();
     }
-}
\ No newline at end of file
+}
@@ -1,18 +1,39 @@
 package dev.denismasterherobrine.flightapi.api;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
 import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.zone.FlightZone;
 
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import net.minecraft.world.World;
 
 public class FlightAPI {
-    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI");
     private static final FlightManager FLIGHT_MANAGER = FlightManager.getInstance();
 
+    /**
+     * Register your mod once and keep the returned handle for the int-based overloads.
+     * The String-based methods intern modIds on demand, but saved ownership is only restored for mods that are
+     * registered when the player joins, so register during mod initialization if your flight should survive a relog.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @return A small int handle for this modId, stable until the game exits; -1 if the modId is invalid
+     */
+    public static int registerMod(String modId) {
+        return FLIGHT_MANAGER.registerMod(modId);
+    }
+
+    /**
+     * Turn a handle back into its modId, e.g. the other mod passed to a {@link FlightOwnershipListener}.
+     * @param modHandle Any mod's handle
+     * @return The modId, or null for -1 and unknown handles
+     */
+    public static String getModId(int modHandle) {
+        return FLIGHT_MANAGER.getModRegistry().name(modHandle);
+    }
+
     /**
      * Request flight control for the specified player.
      * @param modId Your mod's conditional identifier (e.g. "angelring")
@@ -20,10 +41,97 @@ public class FlightAPI {
      * @return true if control was successfully obtained to the specified modId; false if already occupied by another owner
      **/
     public static boolean requestFlight(String modId, ServerPlayerEntity player) {
-        LOGGER.debug("[FlightAPI] {} requested flight for player {}", modId, player);
         return FLIGHT_MANAGER.requestFlightControl(modId, player);
     }
 
+    /**
+     * Request flight control with a priority. When the owner releases, the queued request with the highest priority
+     * takes over; requests with equal priority are served first come, first served.
+     * The plain {@link #requestFlight(String, ServerPlayerEntity)} uses priority 0.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param player The player who wants to fly
+     * @param priority Higher values win; requesting again with another priority updates it
+     * @return true if control was successfully obtained to the specified modId; false if the request was queued
+     **/
+    public static boolean requestFlight(String modId, ServerPlayerEntity player, int priority) {
+        return requestFlight(modId, player, priority, false);
+    }
+
+    /**
+     * Request flight control with a priority, optionally preempting the current owner.
+     * @param modId Your mod's conditional identifier (e.g. "jetpackboost")
+     * @param player The player who wants to fly
+     * @param priority Higher values win; requesting again with another priority updates it
+     * @param preempt If true and the current owner has a lower priority, take over immediately.
+     * The previous owner is queued ahead of other requests with its priority and resumes once you release.
+     * @return true if control was successfully obtained to the specified modId; false if the request was queued
+     **/
+    public static boolean requestFlight(String modId, ServerPlayerEntity player, int priority, boolean preempt) {
+        return FLIGHT_MANAGER.requestFlightControl(FLIGHT_MANAGER.registerMod(modId), player, priority, preempt);
+    }
+
+    /**
+     * Request flight control for the specified player using a handle from {@link #registerMod(String)}.
+     * @param modHandle Your mod's handle
+     * @param player The player who wants to fly
+     * @return true if control was successfully obtained to the specified mod; false if already occupied by another owner
+     **/
+    public static boolean requestFlight(int modHandle, ServerPlayerEntity player) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, player);
+    }
+
+    public static boolean requestFlight(int modHandle, ServerPlayerEntity player, int priority) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, player, priority, false);
+    }
+
+    public static boolean requestFlight(int modHandle, ServerPlayerEntity player, int priority, boolean preempt) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, player, priority, preempt);
+    }
+
+    /**
+     * Request flight control that is released automatically after a number of ticks unless renewed, so flight
+     * granted by a mod that forgets to release it (or crashes) does not stay on forever.
+     * If the request is queued, it is cancelled once the lease runs out while waiting.
+     * Adding a lease to a request you already hold keeps its priority; new requests get priority 0.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param player The player who wants to fly
+     * @param leaseTicks How long the request stays valid, in server ticks
+     * @return true if control was successfully obtained to the specified modId; false if the request was queued
+     **/
+    public static boolean requestFlightLease(String modId, ServerPlayerEntity player, int leaseTicks) {
+        return requestFlightLease(FLIGHT_MANAGER.registerMod(modId), player, leaseTicks);
+    }
+
+    public static boolean requestFlightLease(int modHandle, ServerPlayerEntity player, int leaseTicks) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, player, FlightEngine.KEEP_PRIORITY, false, leaseTicks);
+    }
+
+    /**
+     * Leased variant of {@link #requestFlight(String, ServerPlayerEntity, int)}.
+     * @param priority Higher values win; requesting again with another priority updates it
+     * @param leaseTicks How long the request stays valid, in server ticks
+     **/
+    public static boolean requestFlightLease(String modId, ServerPlayerEntity player, int priority, int leaseTicks) {
+        return requestFlightLease(FLIGHT_MANAGER.registerMod(modId), player, priority, leaseTicks);
+    }
+
+    public static boolean requestFlightLease(int modHandle, ServerPlayerEntity player, int priority, int leaseTicks) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, player, priority, false, leaseTicks);
+    }
+
+    /**
+     * Extends a lease from {@link #requestFlightLease(String, ServerPlayerEntity, int)} to expire {@code leaseTicks} from now.
+     * @return false if the mod holds no leased request for this player, e.g. because it already expired
+     **/
+    public static boolean renewFlightLease(String modId, ServerPlayerEntity player, int leaseTicks) {
+        // Only a registered mod can hold a lease, so an unknown modId is never interned here
+        return renewFlightLease(FLIGHT_MANAGER.getModRegistry().lookup(modId), player, leaseTicks);
+    }
+
+    public static boolean renewFlightLease(int modHandle, ServerPlayerEntity player, int leaseTicks) {
+        return player != null && FLIGHT_MANAGER.renewFlightLease(modHandle, player.getGameProfile().getId(), leaseTicks);
+    }
+
     /**
      * Release flight control.
      * @param modId Your mod's conditional identifier (e.g. "angelring")
@@ -31,10 +139,93 @@ public class FlightAPI {
      * If the modId is not the current owner, nothing will happen.
      */
     public static void releaseFlight(String modId, ServerPlayerEntity player) {
-        LOGGER.debug("[FlightAPI] {} released flight for player {}", modId, player);
         FLIGHT_MANAGER.releaseFlightControl(modId, player);
     }
 
+    /**
+     * Release flight control using a handle from {@link #registerMod(String)}.
+     * @param modHandle Your mod's handle
+     * @param player The player who wants to stop flying.
+     * If the mod is not the current owner, nothing will happen.
+     */
+    public static void releaseFlight(int modHandle, ServerPlayerEntity player) {
+        FLIGHT_MANAGER.releaseFlightControl(modHandle, player);
+    }
+
+    /**
+     * Request flight control for many players at once, e.g. at the start of a minigame round.
+     * Abilities packets are coalesced and sent once per player at the end of the tick.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param players The players who should fly
+     * @return The per-player outcome, in the iteration order of {@code players}
+     */
+    public static FlightBatchResult requestFlight(String modId, Collection<ServerPlayerEntity> players) {
+        return FLIGHT_MANAGER.requestFlightControl(FLIGHT_MANAGER.registerMod(modId), players);
+    }
+
+    public static FlightBatchResult requestFlight(int modHandle, Collection<ServerPlayerEntity> players) {
+        return FLIGHT_MANAGER.requestFlightControl(modHandle, players);
+    }
+
+    /**
+     * Release flight control for many players at once.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param players The players who should stop flying. Players not owned by this mod are skipped.
+     * @return The number of players whose flight was released
+     */
+    public static int releaseFlight(String modId, Collection<ServerPlayerEntity> players) {
+        return FLIGHT_MANAGER.releaseFlightControl(FLIGHT_MANAGER.getModRegistry().lookup(modId), players);
+    }
+
+    public static int releaseFlight(int modHandle, Collection<ServerPlayerEntity> players) {
+        return FLIGHT_MANAGER.releaseFlightControl(modHandle, players);
+    }
+
+    /**
+     * Release flight control for every player this mod owns and cancel all of its queued requests.
+     * Useful when your mod's flight source disappears for everyone, e.g. when a lobby opens.
+     * Only online players are affected; saved ownership of offline players is restored when they join again.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @return The number of players whose flight was released
+     */
+    public static int releaseFlightAll(String modId) {
+        return FLIGHT_MANAGER.releaseFlightControlAll(FLIGHT_MANAGER.getModRegistry().lookup(modId));
+    }
+
+    public static int releaseFlightAll(int modHandle) {
+        return FLIGHT_MANAGER.releaseFlightControlAll(modHandle);
+    }
+
+    /**
+     * Thread-safe variant of {@link #requestFlight(String, ServerPlayerEntity)} that can be called from any thread.
+     * The ownership decision is made immediately; changes to the player's abilities are applied on the server thread at the end of the current tick.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param player The player who wants to fly
+     * @return An already completed future with true if control was obtained, false if the request was queued
+     */
+    public static CompletableFuture<Boolean> requestFlightAsync(String modId, ServerPlayerEntity player) {
+        return FLIGHT_MANAGER.requestFlightControlAsync(FLIGHT_MANAGER.registerMod(modId), player);
+    }
+
+    public static CompletableFuture<Boolean> requestFlightAsync(int modHandle, ServerPlayerEntity player) {
+        return FLIGHT_MANAGER.requestFlightControlAsync(modHandle, player);
+    }
+
+    /**
+     * Thread-safe variant of {@link #releaseFlight(String, ServerPlayerEntity)} that can be called from any thread.
+     * Ownership is handed to the next queued mod immediately; the player's abilities are updated on the server thread at the end of the current tick.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param player The player who wants to stop flying.
+     * @return An already completed future once ownership has been released
+     */
+    public static CompletableFuture<Void> releaseFlightAsync(String modId, ServerPlayerEntity player) {
+        return FLIGHT_MANAGER.releaseFlightControlAsync(FLIGHT_MANAGER.getModRegistry().lookup(modId), player);
+    }
+
+    public static CompletableFuture<Void> releaseFlightAsync(int modHandle, ServerPlayerEntity player) {
+        return FLIGHT_MANAGER.releaseFlightControlAsync(modHandle, player);
+    }
+
     /**
      * Find out which mod is currently keeping flight for this player.
      * @param playerUuid The player's UUID
@@ -45,18 +236,196 @@ public class FlightAPI {
         return FLIGHT_MANAGER.getCurrentOwner(playerUuid);
     }
 
+    /**
+     * Allocation-free variant of {@link #getCurrentOwner(UUID)}, intended for code that polls every tick.
+     * @param playerUuid The player's UUID
+     * @return The modId of the current flight owner, or null if nobody owns flight for this player.
+     */
+    public static String getCurrentOwnerOrNull(UUID playerUuid) {
+        return FLIGHT_MANAGER.currentOwnerOrNull(playerUuid);
+    }
+
+    /**
+     * Find out which mod handle is currently keeping flight for this player.
+     * @param playerUuid The player's UUID
+     * @return The handle of the current flight owner, or -1 if nobody owns flight for this player.
+     */
+    public static int getCurrentOwnerHandle(UUID playerUuid) {
+        return FLIGHT_MANAGER.currentOwnerHandle(playerUuid);
+    }
+
+    /**
+     * Check whether any mod currently owns flight for this player.
+     * @param playerUuid The player's UUID
+     * @return true if a flight owner exists, without allocating an Optional.
+     */
+    public static boolean isFlightOwned(UUID playerUuid) {
+        return FLIGHT_MANAGER.isOwned(playerUuid);
+    }
+
     /**
      * Get the flight queue for the specified player.
      * @param playerUuid The player's UUID
-     * @return A list of modIds in the order they requested flight control.
+     * @return A list of modIds in handoff order, shared with other readers and unmodifiable.
      * If the player has no queue, Optional.empty() will be returned.
      */
     public static Optional<List<String>> getFlightQueue(UUID playerUuid) {
         return FLIGHT_MANAGER.getFlightQueueSnapshot(playerUuid);
     }
 
+    /**
+     * Get the owner and flight queue of the specified player without locking or copying, e.g. for a HUD.
+     * The same immutable view is returned until the player's flight state changes.
+     * @param playerUuid The player's UUID
+     * @return The current view, or {@link FlightQueueView#EMPTY} if the player has no flight state
+     */
+    public static FlightQueueView getFlightQueueView(UUID playerUuid) {
+        return FLIGHT_MANAGER.queueView(playerUuid);
+    }
+
+    /**
+     * Get every player whose flight is currently owned by the specified mod.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @return A live, read-only view of the owned players' UUIDs; cheap to call, no copy is made.
+     * Copy it if you need a stable snapshot while requesting or releasing flight.
+     */
+    public static Set<UUID> getOwnedPlayers(String modId) {
+        return FLIGHT_MANAGER.getOwnedPlayers(FLIGHT_MANAGER.getModRegistry().lookup(modId));
+    }
+
+    public static Set<UUID> getOwnedPlayers(int modHandle) {
+        return FLIGHT_MANAGER.getOwnedPlayers(modHandle);
+    }
+
+    /**
+     * Get every player for whom the specified mod is waiting in the flight queue.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @return A live, read-only view of the queued players' UUIDs; cheap to call, no copy is made.
+     */
+    public static Set<UUID> getQueuedPlayers(String modId) {
+        return FLIGHT_MANAGER.getQueuedPlayers(FLIGHT_MANAGER.getModRegistry().lookup(modId));
+    }
+
+    public static Set<UUID> getQueuedPlayers(int modHandle) {
+        return FLIGHT_MANAGER.getQueuedPlayers(modHandle);
+    }
+
     public static void cancelFlightRequest(String modId, UUID playerUuid) {
-        LOGGER.debug("[FlightAPI] Cancelling flight request for mod {} and player {}", modId, playerUuid);
         FLIGHT_MANAGER.cancelQueuedRequest(modId, playerUuid);
     }
+
+    public static void cancelFlightRequest(int modHandle, UUID playerUuid) {
+        FLIGHT_MANAGER.cancelQueuedRequest(modHandle, playerUuid);
+    }
+
+    /**
+     * Get notified when your mod gains or loses flight instead of polling {@link #getCurrentOwner(UUID)}.
+     * Changes are delivered on the server thread at the end of the tick in which they happened.
+     * @param modId Your mod's conditional identifier (e.g. "angelring")
+     * @param listener Called for every ownership change of this mod
+     * @return false if the modId is invalid
+     */
+    public static boolean subscribe(String modId, FlightOwnershipListener listener) {
+        return subscribe(FLIGHT_MANAGER.registerMod(modId), listener);
+    }
+
+    public static boolean subscribe(int modHandle, FlightOwnershipListener listener) {
+        if (modHandle < 0 || listener == null) {
+            return false;
+        }
+
+        FLIGHT_MANAGER.getEvents().subscribe(modHandle, listener);
+        return true;
+    }
+
+    public static void unsubscribe(String modId, FlightOwnershipListener listener) {
+        unsubscribe(FLIGHT_MANAGER.getModRegistry().lookup(modId), listener);
+    }
+
+    public static void unsubscribe(int modHandle, FlightOwnershipListener listener) {
+        if (modHandle >= 0) {
+            FLIGHT_MANAGER.getEvents().unsubscribe(modHandle, listener);
+        }
+    }
+
+    /**
+     * Ban mod flight in an area, e.g. a PvP arena. Players who own flight keep their ownership and queue while inside,
+     * but can't fly until they leave. Zones are evaluated per chunk, so the area is widened to whole chunks.
+     * @param zoneId Identifies the zone for {@link #removeNoFlightZone(String)}; registering it again replaces it
+     * @param dimension The dimension the zone is in, e.g. {@code World.NETHER}
+     */
+    public static void addNoFlightZone(String zoneId, RegistryKey<World> dimension, int x1, int z1, int x2, int z2) {
+        FLIGHT_MANAGER.getZonePolicy().register(FlightZone.blocks(zoneId, dimension, x1, z1, x2, z2));
+    }
+
+    /**
+     * Ban mod flight in a whole dimension, e.g. {@code World.END}.
+     */
+    public static void addNoFlightDimension(String zoneId, RegistryKey<World> dimension) {
+        FLIGHT_MANAGER.getZonePolicy().register(FlightZone.dimension(zoneId, dimension));
+    }
+
+    /**
+     * @return false if no zone with this id was registered
+     */
+    public static boolean removeNoFlightZone(String zoneId) {
+        return FLIGHT_MANAGER.getZonePolicy().remove(zoneId);
+    }
+
+    /**
+     * @return true if the player is in a no-flight zone, so owned flight is currently held back
+     */
+    public static boolean isFlightSuspended(UUID playerUuid) {
+        return FLIGHT_MANAGER.isSuspended(playerUuid);
+    }
+
+    /**
+     * @return The number of players FlightAPI currently keeps ownership or queue state for.
+     * Entries are dropped on disconnect, so this stays bounded by the online player count.
+     */
+    public static int getTrackedPlayerCount() {
+        return FLIGHT_MANAGER.trackedPlayerCount();
+    }
+
+    /**
+     * @return The number of tracked players whose flight is currently owned by some mod.
+     */
+    public static int getOwnedPlayerCount() {
+        return FLIGHT_MANAGER.ownedPlayerCount();
+    }
+
+    /**
+     * @return The total number of queued flight requests across all tracked players.
+     */
+    public static int getQueuedRequestCount() {
+        return FLIGHT_MANAGER.queuedRequestCount();
+    }
+
+    /**
+     * @return The number of abilities packets FlightAPI has sent since startup.
+     */
+    public static long getAbilityPacketsSent() {
+        return FLIGHT_MANAGER.getAbilitySync().packetsSent();
+    }
+
+    /**
+     * @return The number of abilities packets FlightAPI skipped because the player's flight state did not change within a tick.
+     */
+    public static long getAbilityPacketsSuppressed() {
+        return FLIGHT_MANAGER.getAbilitySync().packetsSuppressed();
+    }
+
+    /**
+     * @return The number of compact flight sync payloads sent instead of abilities packets to clients with FlightAPI.
+     */
+    public static long getFlightSyncPayloadsSent() {
+        return FLIGHT_MANAGER.getAbilitySync().payloadsSent();
+    }
+
+    /**
+     * @return The number of abilities updates skipped entirely because the player was in creative or spectator mode.
+     */
+    public static long getAbilityUpdatesSkipped() {
+        return FLIGHT_MANAGER.getAbilitySync().skippedAlwaysFlying();
+    }
 }
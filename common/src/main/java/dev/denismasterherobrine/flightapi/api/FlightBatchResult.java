@@ -0,0 +1,58 @@
+package dev.denismasterherobrine.flightapi.api;
+
+import java.util.UUID;
+
+/**
+ * Per-player outcome of a batch flight request, stored as two parallel arrays in request order.
+ */
+public final class FlightBatchResult {
+    private final UUID[] players;
+    private final FlightRequestResult[] results;
+    private int granted;
+    private int queued;
+    private int rejected;
+
+    public FlightBatchResult(UUID[] players, FlightRequestResult[] results) {
+        if (players.length != results.length) {
+            throw new IllegalArgumentException("players and results must have the same length");
+        }
+
+        this.players = players;
+        this.results = results;
+
+        for (FlightRequestResult result : results) {
+            switch (result) {
+                case GRANTED -> granted++;
+                case QUEUED -> queued++;
+                case REJECTED -> rejected++;
+            }
+        }
+    }
+
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * @return The UUID of the i-th requested player, or null if that entry was a null player.
+     */
+    public UUID player(int index) {
+        return players[index];
+    }
+
+    public FlightRequestResult result(int index) {
+        return results[index];
+    }
+
+    public int granted() {
+        return granted;
+    }
+
+    public int queued() {
+        return queued;
+    }
+
+    public int rejected() {
+        return rejected;
+    }
+}
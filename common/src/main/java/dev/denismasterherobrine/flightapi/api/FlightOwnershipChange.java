@@ -0,0 +1,16 @@
+package dev.denismasterherobrine.flightapi.api;
+
+public enum FlightOwnershipChange {
+    /** The mod became the owner, from its own request or because the previous owner released. */
+    GRANTED,
+    /** The mod's request was queued behind the current owner. */
+    QUEUED,
+    /** The mod lost ownership by releasing, an admin release or an expired lease. */
+    RELEASED,
+    /** A higher-priority request took over; the mod's request is queued again. */
+    PREEMPTED,
+    /** The mod's queued request was removed before it got flight. */
+    CANCELLED,
+    /** All flight state of the player was dropped, owned or queued. */
+    PURGED
+}
@@ -0,0 +1,19 @@
+package dev.denismasterherobrine.flightapi.api;
+
+import java.util.UUID;
+
+/**
+ * Receives ownership changes of the mods it was subscribed for with {@link FlightAPI#subscribe(String, FlightOwnershipListener)}.
+ * Changes are collected during the tick and delivered in order on the server thread at the end of it.
+ */
+@FunctionalInterface
+public interface FlightOwnershipListener {
+    /**
+     * @param change What happened to the mod's request
+     * @param player The affected player
+     * @param modHandle The subscribed mod the change is about
+     * @param otherModHandle The other mod involved, e.g. the new owner for {@link FlightOwnershipChange#RELEASED}
+     * or {@link FlightOwnershipChange#PREEMPTED}, or -1; {@link FlightAPI#getModId(int)} returns its modId
+     */
+    void onOwnershipChange(FlightOwnershipChange change, UUID player, int modHandle, int otherModHandle);
+}
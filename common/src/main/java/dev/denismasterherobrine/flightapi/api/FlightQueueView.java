@@ -0,0 +1,18 @@
+package dev.denismasterherobrine.flightapi.api;
+
+import java.util.List;
+
+/**
+ * Immutable view of a player's flight owner and queue, shared by every reader until the state changes.
+ * Compare {@link #version()} with the one from your last read to skip work when nothing changed.
+ * @param version Differs from every earlier view of any player, 0 for {@link #EMPTY}
+ * @param owner The current owner's modId, or null
+ * @param queue Queued modIds in handoff order, unmodifiable
+ */
+public record FlightQueueView(long version, String owner, List<String> queue) {
+    public static final FlightQueueView EMPTY = new FlightQueueView(0, null, List.of());
+
+    public boolean isOwned() {
+        return owner != null;
+    }
+}
@@ -0,0 +1,10 @@
+package dev.denismasterherobrine.flightapi.api;
+
+public enum FlightRequestResult {
+    /** The mod owns flight for the player, either already or from this request. */
+    GRANTED,
+    /** Another mod owns flight; the request waits in the player's queue. */
+    QUEUED,
+    /** The request was invalid (no player, unknown mod or a player who already left) and had no effect. */
+    REJECTED
+}
@@ -0,0 +1,57 @@
+package dev.denismasterherobrine.flightapi.client;
+
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
+
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.network.ClientPlayerEntity;
+import net.minecraft.entity.player.PlayerAbilities;
+
+/**
+ * Applies {@link FlightSyncPayload}s on the client, dropping any that are older than the last one applied.
+ * Must only be called on the client thread, and {@link #reset()} on disconnect.
+ */
+public final class FlightClientSync {
+    private static ClientPlayerEntity lastPlayer;
+    private static int lastSequence;
+    private static int ownerHandle = FlightModRegistry.NONE;
+
+    private FlightClientSync() {}
+
+    public static void apply(FlightSyncPayload payload) {
+        ClientPlayerEntity player = MinecraftClient.getInstance().player;
+        if (player == null) {
+            return;
+        }
+
+        // A new player entity means a new connection (or a respawn), so earlier sequences no longer apply
+        if (player != lastPlayer) {
+            lastPlayer = player;
+            lastSequence = Integer.MIN_VALUE;
+        }
+        if (payload.sequence() <= lastSequence) {
+            return;
+        }
+
+        lastSequence = payload.sequence();
+        ownerHandle = payload.ownerHandle();
+
+        PlayerAbilities abilities = player.getAbilities();
+        abilities.allowFlying = payload.allowFlying();
+        abilities.flying = payload.flying();
+    }
+
+    // Drops the player reference too, so the old player and its world don't stay reachable after disconnect
+    public static void reset() {
+        lastPlayer = null;
+        lastSequence = Integer.MIN_VALUE;
+        ownerHandle = FlightModRegistry.NONE;
+    }
+
+    /**
+     * @return The server-side handle of the mod owning the local player's flight, as of the last update, or -1
+     */
+    public static int ownerHandle() {
+        return ownerHandle;
+    }
+}
@@ -1,26 +1,39 @@
 package dev.denismasterherobrine.flightapi.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import com.mojang.brigadier.context.CommandContext;
 import dev.denismasterherobrine.flightapi.api.FlightAPI;
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
 import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetric;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetrics;
 import net.minecraft.command.argument.EntityArgumentType;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.PlayerManager;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.MutableText;
 import net.minecraft.text.Text;
 import net.minecraft.util.Formatting;
+import net.minecraft.util.WorldSavePath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
 import java.util.UUID;
 
 public class FlightAPICommand {
     private static final Logger LOGGER = LoggerFactory.getLogger("FlightManager");
+    private static final int TRACE_CHAT_LINES = 20;
 
     public static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
         LiteralArgumentBuilder<ServerCommandSource> root = CommandManager.literal("flightapi")
@@ -68,6 +81,68 @@ public class FlightAPICommand {
                 .then(CommandManager.argument("player", EntityArgumentType.player())
                         .executes(ctx -> purge(ctx, EntityArgumentType.getPlayer(ctx, "player")))));
 
+        // /flightapi mod <modId> [page]
+        root.then(CommandManager.literal("mod")
+                .then(CommandManager.argument("modId", StringArgumentType.word())
+                        .executes(ctx -> mod(ctx, StringArgumentType.getString(ctx, "modId"), 1))
+                        .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                                .executes(ctx -> mod(ctx, StringArgumentType.getString(ctx, "modId"),
+                                        IntegerArgumentType.getInteger(ctx, "page"))))));
+
+        // /flightapi trace [on|off|clear|all|player <player>|mod <modId>]
+        root.then(CommandManager.literal("trace")
+                .executes(FlightAPICommand::traceDump)
+                .then(CommandManager.literal("on")
+                        .executes(ctx -> traceEnabled(ctx, true)))
+                .then(CommandManager.literal("off")
+                        .executes(ctx -> traceEnabled(ctx, false)))
+                .then(CommandManager.literal("clear")
+                        .executes(FlightAPICommand::traceClear))
+                .then(CommandManager.literal("all")
+                        .executes(ctx -> traceFilter(ctx, null, null)))
+                .then(CommandManager.literal("player")
+                        .then(CommandManager.argument("player", EntityArgumentType.player())
+                                .executes(ctx -> traceFilter(ctx, EntityArgumentType.getPlayer(ctx, "player"), null))))
+                .then(CommandManager.literal("mod")
+                        .then(CommandManager.argument("modId", StringArgumentType.word())
+                                .executes(ctx -> traceFilter(ctx, null, StringArgumentType.getString(ctx, "modId"))))));
+
+        // /flightapi gauges
+        root.then(CommandManager.literal("gauges")
+                .executes(FlightAPICommand::gauges));
+
+        // /flightapi list [page] | list mod <modId> [page]
+        root.then(CommandManager.literal("list")
+                .executes(ctx -> list(ctx, null, 1))
+                .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                        .executes(ctx -> list(ctx, null, IntegerArgumentType.getInteger(ctx, "page"))))
+                .then(CommandManager.literal("mod")
+                        .then(CommandManager.argument("modId", StringArgumentType.word())
+                                .executes(ctx -> list(ctx, StringArgumentType.getString(ctx, "modId"), 1))
+                                .then(CommandManager.argument("page", IntegerArgumentType.integer(1))
+                                        .executes(ctx -> list(ctx,
+                                                StringArgumentType.getString(ctx, "modId"),
+                                                IntegerArgumentType.getInteger(ctx, "page")))))));
+
+        // /flightapi dump <file>
+        root.then(CommandManager.literal("dump")
+                .then(CommandManager.argument("file", StringArgumentType.word())
+                        .executes(ctx -> dump(ctx, StringArgumentType.getString(ctx, "file")))));
+
+        // /flightapi stats [reset|timing <on|off>|mod <modId>]
+        root.then(CommandManager.literal("stats")
+                .executes(FlightAPICommand::stats)
+                .then(CommandManager.literal("reset")
+                        .executes(FlightAPICommand::statsReset))
+                .then(CommandManager.literal("timing")
+                        .then(CommandManager.literal("on")
+                                .executes(ctx -> statsTiming(ctx, true)))
+                        .then(CommandManager.literal("off")
+                                .executes(ctx -> statsTiming(ctx, false))))
+                .then(CommandManager.literal("mod")
+                        .then(CommandManager.argument("modId", StringArgumentType.word())
+                                .executes(ctx -> statsMod(ctx, StringArgumentType.getString(ctx, "modId"))))));
+
         dispatcher.register(root);
         LOGGER.info("[FlightAPI] commands registered");
     }
@@ -76,8 +151,9 @@ public class FlightAPICommand {
         final UUID id = p.getUuid();
         final String name = p.getGameProfile().getName();
 
-        final Optional<String> owner = FlightAPI.getCurrentOwner(id);
-        final List<String> queue = FlightAPI.getFlightQueue(id).orElse(List.of());
+        final FlightQueueView view = FlightAPI.getFlightQueueView(id);
+        final String owner = view.owner();
+        final List<String> queue = view.queue();
 
         final boolean creative = p.getAbilities().creativeMode;
         final boolean spectator = p.isSpectator();
@@ -87,7 +163,7 @@ public class FlightAPICommand {
         final Text msg = Text.literal("FlightAPI status for ")
                 .append(Text.literal(name).formatted(Formatting.AQUA))
                 .append(Text.literal("\nOwner: ").formatted(Formatting.GRAY))
-                .append(Text.literal(String.valueOf(owner.orElse(null))).formatted(Formatting.YELLOW))
+                .append(Text.literal(String.valueOf(owner)).formatted(Formatting.YELLOW))
                 .append(Text.literal("\nQueue: ").formatted(Formatting.GRAY))
                 .append(Text.literal(queue.toString()).formatted(Formatting.YELLOW))
                 .append(Text.literal("\nallowFlying=").formatted(Formatting.GRAY))
@@ -103,7 +179,7 @@ public class FlightAPICommand {
 
         LOGGER.info(
                 "[FlightAPI] status: player={} owner='{}' queue={} allowFlying={} flying={} creative={} spectator={}",
-                name, owner.orElse(null), queue, allowFlying, flying, creative, spectator
+                name, owner, queue, allowFlying, flying, creative, spectator
         );
         return 1;
     }
@@ -122,7 +198,7 @@ public class FlightAPICommand {
     }
 
     private static int queue(CommandContext<ServerCommandSource> ctx, ServerPlayerEntity player) {
-        List<String> queue = FlightAPI.getFlightQueue(player.getUuid()).orElse(List.of());
+        List<String> queue = FlightAPI.getFlightQueueView(player.getUuid()).queue();
 
         ctx.getSource().sendFeedback(
                 () -> Text.literal("Flight queue for " + player.getName().getString() + ": ").append(Text.literal(String.join(", ", queue)).formatted(Formatting.YELLOW)),
@@ -165,6 +241,245 @@ public class FlightAPICommand {
         return 1;
     }
 
+    // Both lists are paged together like list; the full set of players is in /flightapi dump
+    private static int mod(CommandContext<ServerCommandSource> ctx, String modId, int page) {
+        final PlayerManager playerManager = ctx.getSource().getServer().getPlayerManager();
+        final List<String> owned = playerNames(playerManager, FlightAPI.getOwnedPlayers(modId));
+        final List<String> queued = playerNames(playerManager, FlightAPI.getQueuedPlayers(modId));
+        final int pages = Math.max(FlightOverview.pageCount(owned), FlightOverview.pageCount(queued));
+        final int shown = Math.min(page, pages);
+
+        final MutableText msg = Text.literal("Flight for mod ")
+                .append(Text.literal(modId).formatted(Formatting.AQUA))
+                .append(Text.literal(", page " + shown + "/" + pages).formatted(Formatting.GRAY))
+                .append(Text.literal("\nOwned: ").formatted(Formatting.GRAY))
+                .append(Text.literal(describePage(owned, shown)).formatted(Formatting.YELLOW))
+                .append(Text.literal("\nQueued: ").formatted(Formatting.GRAY))
+                .append(Text.literal(describePage(queued, shown)).formatted(Formatting.YELLOW));
+        if (pages > 1) {
+            msg.append(Text.literal("\nUse /flightapi mod " + modId + " <page> or /flightapi dump <file> for the rest")
+                    .formatted(Formatting.GRAY));
+        }
+
+        ctx.getSource().sendFeedback(() -> msg, false);
+
+        return owned.size() + queued.size();
+    }
+
+    // Sorted, so pages stay stable while the sets behind them change
+    private static List<String> playerNames(PlayerManager playerManager, Set<UUID> uuids) {
+        List<String> names = new ArrayList<>(uuids.size());
+        for (UUID uuid : uuids) {
+            ServerPlayerEntity player = playerManager.getPlayer(uuid);
+            names.add(player != null ? player.getGameProfile().getName() : uuid.toString());
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        return names;
+    }
+
+    // Past the last page of this list, only its size is shown
+    private static String describePage(List<String> names, int page) {
+        StringJoiner joiner = new StringJoiner(", ", names.size() + " [", "]");
+        if (page <= FlightOverview.pageCount(names)) {
+            FlightOverview.page(names, page).forEach(joiner::add);
+        }
+        return joiner.toString();
+    }
+
+    private static int traceDump(CommandContext<ServerCommandSource> ctx) {
+        final List<String> lines = FlightManager.getInstance().getTrace().dump();
+
+        // The whole buffer goes to the log in one block, chat only gets the most recent events
+        LOGGER.info("[FlightAPI] trace dump ({} events):\n{}", lines.size(), String.join("\n", lines));
+
+        final List<String> recent = lines.subList(Math.max(0, lines.size() - TRACE_CHAT_LINES), lines.size());
+        ctx.getSource().sendFeedback(
+                () -> Text.literal("Flight trace, " + lines.size() + " events (full dump in server log):").formatted(Formatting.GRAY)
+                        .append(Text.literal(recent.isEmpty() ? "" : "\n" + String.join("\n", recent)).formatted(Formatting.YELLOW)),
+                false
+        );
+
+        return lines.size();
+    }
+
+    private static int traceEnabled(CommandContext<ServerCommandSource> ctx, boolean enabled) {
+        FlightManager.getInstance().getTrace().setEnabled(enabled);
+
+        ctx.getSource().sendFeedback(
+                () -> Text.literal("Flight trace " + (enabled ? "enabled" : "disabled")).formatted(Formatting.GREEN),
+                true
+        );
+
+        return 1;
+    }
+
+    private static int traceClear(CommandContext<ServerCommandSource> ctx) {
+        FlightManager.getInstance().getTrace().clear();
+
+        ctx.getSource().sendFeedback(() -> Text.literal("Flight trace cleared").formatted(Formatting.GREEN), true);
+
+        return 1;
+    }
+
+    private static int traceFilter(CommandContext<ServerCommandSource> ctx, ServerPlayerEntity player, String modId) {
+        final FlightManager manager = FlightManager.getInstance();
+        final int modHandle = (modId == null) ? FlightModRegistry.NONE : manager.getModRegistry().lookup(modId);
+        if (modId != null && modHandle == FlightModRegistry.NONE) {
+            ctx.getSource().sendError(Text.literal("Unknown modId " + modId));
+            return 0;
+        }
+
+        manager.getTrace().filterPlayer(player == null ? null : player.getUuid());
+        manager.getTrace().filterMod(modHandle);
+
+        final String target = player != null ? "player " + player.getName().getString()
+                : modId != null ? "mod " + modId
+                : "everyone";
+
+        ctx.getSource().sendFeedback(
+                () -> Text.literal("Flight trace now records " + target).formatted(Formatting.GREEN),
+                true
+        );
+
+        return 1;
+    }
+
+    private static int gauges(CommandContext<ServerCommandSource> ctx) {
+        final int tracked = FlightAPI.getTrackedPlayerCount();
+        final int owned = FlightAPI.getOwnedPlayerCount();
+        final int queued = FlightAPI.getQueuedRequestCount();
+        final long sent = FlightAPI.getAbilityPacketsSent();
+        final long suppressed = FlightAPI.getAbilityPacketsSuppressed();
+        final long skipped = FlightAPI.getAbilityUpdatesSkipped();
+        final long payloads = FlightAPI.getFlightSyncPayloadsSent();
+
+        ctx.getSource().sendFeedback(
+                () -> Text.literal("Tracked players: ").formatted(Formatting.GRAY)
+                        .append(Text.literal(String.valueOf(tracked)).formatted(Formatting.YELLOW))
+                        .append(Text.literal("  owned: ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(owned)).formatted(Formatting.YELLOW))
+                        .append(Text.literal("  queued requests: ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(queued)).formatted(Formatting.YELLOW))
+                        .append(Text.literal("\nAbilities packets sent: ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(sent)).formatted(Formatting.GREEN))
+                        .append(Text.literal("  sync payloads sent: ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(payloads)).formatted(Formatting.GREEN))
+                        .append(Text.literal("  suppressed: ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(suppressed)).formatted(Formatting.GREEN))
+                        .append(Text.literal("  skipped (creative/spectator): ").formatted(Formatting.GRAY))
+                        .append(Text.literal(String.valueOf(skipped)).formatted(Formatting.GREEN)),
+                false
+        );
+
+        return 1;
+    }
+
+    private static int list(CommandContext<ServerCommandSource> ctx, String modId, int page) {
+        final List<FlightOverview.Row> rows = FlightOverview.capture(FlightManager.getInstance(),
+                ctx.getSource().getServer().getPlayerManager(), modId);
+        final int pages = FlightOverview.pageCount(rows);
+        final int shown = Math.min(page, pages);
+
+        final MutableText msg = Text.literal("Flight state of " + rows.size() + " players"
+                + (modId != null ? " for mod " + modId : "") + ", page " + shown + "/" + pages).formatted(Formatting.GRAY);
+        for (FlightOverview.Row row : FlightOverview.page(rows, shown)) {
+            msg.append(Text.literal("\n" + row.render()).formatted(Formatting.YELLOW));
+        }
+
+        ctx.getSource().sendFeedback(() -> msg, false);
+
+        return rows.size();
+    }
+
+    private static int dump(CommandContext<ServerCommandSource> ctx, String fileName) {
+        if (!FlightOverview.isValidFileName(fileName)) {
+            ctx.getSource().sendError(Text.literal("Invalid dump file name " + fileName));
+            return 0;
+        }
+
+        final ServerCommandSource source = ctx.getSource();
+        final MinecraftServer server = source.getServer();
+        final Path file = server.getSavePath(WorldSavePath.ROOT).resolve("flightapi").resolve("dumps").resolve(fileName);
+        final List<FlightOverview.Row> rows = FlightOverview.capture(FlightManager.getInstance(), server.getPlayerManager(), null);
+
+        FlightOverview.dump(file, rows).whenComplete((written, error) -> server.execute(() -> {
+            if (error != null) {
+                LOGGER.warn("[FlightAPI] Failed to dump flight state to {}", file, error);
+                source.sendError(Text.literal("Failed to dump flight state, see the server log"));
+            } else {
+                source.sendFeedback(() -> Text.literal("Dumped flight state of " + written + " players to " + file).formatted(Formatting.GREEN), false);
+            }
+        }));
+
+        source.sendFeedback(() -> Text.literal("Dumping flight state of " + rows.size() + " players...").formatted(Formatting.GRAY), false);
+
+        return rows.size();
+    }
+
+    private static int stats(CommandContext<ServerCommandSource> ctx) {
+        final FlightMetrics metrics = FlightManager.getInstance().getMetrics();
+
+        final MutableText msg = Text.literal("Flight stats").formatted(Formatting.GRAY);
+        appendCounters(msg, metrics, FlightModRegistry.NONE);
+        msg.append(Text.literal("\nLock hold: ").formatted(Formatting.GRAY));
+        if (metrics.lockHoldSamples() == 0) {
+            msg.append(Text.literal(metrics.isLockTiming() ? "no samples yet" : "timing off").formatted(Formatting.YELLOW));
+        } else {
+            msg.append(Text.literal(metrics.lockHoldSamples() + " samples, mean " + metrics.lockHoldMeanNanos()
+                    + "ns, p50 <" + metrics.lockHoldQuantileNanos(0.5) + "ns, p99 <" + metrics.lockHoldQuantileNanos(0.99) + "ns")
+                    .formatted(Formatting.YELLOW));
+        }
+
+        ctx.getSource().sendFeedback(() -> msg, false);
+
+        return 1;
+    }
+
+    private static int statsMod(CommandContext<ServerCommandSource> ctx, String modId) {
+        final FlightManager manager = FlightManager.getInstance();
+        final int modHandle = manager.getModRegistry().lookup(modId);
+        if (modHandle == FlightModRegistry.NONE) {
+            ctx.getSource().sendError(Text.literal("Unknown modId " + modId));
+            return 0;
+        }
+
+        final MutableText msg = Text.literal("Flight stats for mod ").formatted(Formatting.GRAY)
+                .append(Text.literal(modId).formatted(Formatting.AQUA));
+        appendCounters(msg, manager.getMetrics(), modHandle);
+
+        ctx.getSource().sendFeedback(() -> msg, false);
+
+        return 1;
+    }
+
+    private static void appendCounters(MutableText msg, FlightMetrics metrics, int modHandle) {
+        int column = 0;
+        for (FlightMetric metric : FlightMetric.values()) {
+            long count = (modHandle == FlightModRegistry.NONE) ? metrics.get(metric) : metrics.get(metric, modHandle);
+            msg.append(Text.literal((column++ % 3 == 0 ? "\n" : "  ") + metric.key() + ": ").formatted(Formatting.GRAY))
+                    .append(Text.literal(String.valueOf(count)).formatted(Formatting.YELLOW));
+        }
+    }
+
+    private static int statsReset(CommandContext<ServerCommandSource> ctx) {
+        FlightManager.getInstance().getMetrics().reset();
+
+        ctx.getSource().sendFeedback(() -> Text.literal("Flight stats reset").formatted(Formatting.GREEN), true);
+
+        return 1;
+    }
+
+    private static int statsTiming(CommandContext<ServerCommandSource> ctx, boolean enabled) {
+        FlightManager.getInstance().getMetrics().setLockTiming(enabled);
+
+        ctx.getSource().sendFeedback(
+                () -> Text.literal("Flight lock timing " + (enabled ? "enabled" : "disabled")).formatted(Formatting.GREEN),
+                true
+        );
+
+        return 1;
+    }
+
     private static ServerPlayerEntity selfOrError(CommandContext<ServerCommandSource> ctx) {
         try {
             return ctx.getSource().getPlayer();
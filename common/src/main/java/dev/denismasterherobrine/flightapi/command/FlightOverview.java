@@ -0,0 +1,136 @@
+package dev.denismasterherobrine.flightapi.command;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Pattern;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Server-wide view of flight state for the list and dump commands.
+ * {@link #capture} takes the queue views in one pass on the server thread. Views are shared until a player's state
+ * changes, so only changed players cost a rebuild, and a mod filter only visits that mod's players through the
+ * reverse index. Rendering and writing happen afterwards, dumps on a background thread.
+ */
+final class FlightOverview {
+    static final int PAGE_SIZE = 10;
+
+    // Dumps may only be plain file names inside the dumps folder
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_\\-][A-Za-z0-9_.\\-]{0,63}");
+
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FlightAPI-Dump");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private FlightOverview() {}
+
+    record Row(UUID player, String name, FlightQueueView view) {
+        String render() {
+            return name + " owner=" + view.owner() + " queue=" + view.queue();
+        }
+    }
+
+    /**
+     * @param modId Only players this mod owns or is queued for, or null for everyone with flight state
+     * @return The rows sorted by player name
+     */
+    static List<Row> capture(FlightManager manager, PlayerManager playerManager, String modId) {
+        Collection<UUID> players;
+        if (modId == null) {
+            players = manager.trackedPlayers();
+        } else {
+            int modHandle = manager.getModRegistry().lookup(modId);
+            if (modHandle == FlightModRegistry.NONE) {
+                return List.of();
+            }
+
+            // A player moving from the queue to ownership during the pass may show up in both sets
+            players = new LinkedHashSet<>(manager.getOwnedPlayers(modHandle));
+            players.addAll(manager.getQueuedPlayers(modHandle));
+        }
+
+        List<Row> rows = new ArrayList<>(players.size());
+        for (UUID playerUuid : players) {
+            FlightQueueView view = manager.queueView(playerUuid);
+            if (view == FlightQueueView.EMPTY || (modId != null && !involves(view, modId))) {
+                continue;
+            }
+
+            ServerPlayerEntity player = playerManager.getPlayer(playerUuid);
+            rows.add(new Row(playerUuid, player != null ? player.getGameProfile().getName() : playerUuid.toString(), view));
+        }
+
+        rows.sort(Comparator.comparing(Row::name, String.CASE_INSENSITIVE_ORDER));
+        return rows;
+    }
+
+    static int pageCount(List<?> rows) {
+        return Math.max(1, (rows.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+    }
+
+    // Pages start at 1 and are clamped to the last one
+    static <T> List<T> page(List<T> rows, int page) {
+        int from = (Math.min(page, pageCount(rows)) - 1) * PAGE_SIZE;
+        return rows.subList(from, Math.min(rows.size(), from + PAGE_SIZE));
+    }
+
+    static boolean isValidFileName(String fileName) {
+        return FILE_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * Streams the rows to the file on the dump thread, through a temporary file so readers never see half a report.
+     * @return The number of rows written
+     */
+    static CompletableFuture<Integer> dump(Path file, List<Row> rows) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+                try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+                    out.write("player\tuuid\towner\tqueue");
+                    out.newLine();
+                    for (Row row : rows) {
+                        out.write(row.name());
+                        out.write('\t');
+                        out.write(row.player().toString());
+                        out.write('\t');
+                        out.write(String.valueOf(row.view().owner()));
+                        out.write('\t');
+                        out.write(String.join(",", row.view().queue()));
+                        out.newLine();
+                    }
+                }
+
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return rows.size();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write " + file, e);
+            }
+        }, WRITER);
+    }
+
+    private static boolean involves(FlightQueueView view, String modId) {
+        return modId.equals(view.owner()) || view.queue().contains(modId);
+    }
+}
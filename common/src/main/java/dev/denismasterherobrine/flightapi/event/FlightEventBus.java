@@ -0,0 +1,141 @@
+package dev.denismasterherobrine.flightapi.event;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import dev.denismasterherobrine.flightapi.api.FlightOwnershipChange;
+import dev.denismasterherobrine.flightapi.api.FlightOwnershipListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Per-mod ownership change notifications, delivered in one batch at the end of the tick.
+ * Publishing appends a few primitives to a reusable buffer and is skipped entirely for mods nobody subscribed to.
+ * Two buffers are swapped on dispatch, so changes caused by listeners are delivered on the next tick.
+ */
+public final class FlightEventBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI/Events");
+    private static final FlightOwnershipChange[] CHANGES = FlightOwnershipChange.values();
+    private static final FlightOwnershipListener[] NO_LISTENERS = new FlightOwnershipListener[0];
+
+    // Listeners per mod handle, copied on write; subscribing is rare, publishing happens on every transition
+    private volatile FlightOwnershipListener[][] listeners = new FlightOwnershipListener[0][];
+
+    private Buffer pending = new Buffer();
+    private Buffer delivering = new Buffer();
+
+    public synchronized void subscribe(int modHandle, FlightOwnershipListener listener) {
+        FlightOwnershipListener[][] current = listeners;
+        FlightOwnershipListener[][] updated = Arrays.copyOf(current, Math.max(current.length, modHandle + 1));
+
+        FlightOwnershipListener[] forMod = listenersOf(current, modHandle);
+        FlightOwnershipListener[] grown = Arrays.copyOf(forMod, forMod.length + 1);
+        grown[forMod.length] = listener;
+        updated[modHandle] = grown;
+        listeners = updated;
+    }
+
+    public synchronized void unsubscribe(int modHandle, FlightOwnershipListener listener) {
+        FlightOwnershipListener[][] current = listeners;
+        FlightOwnershipListener[] forMod = listenersOf(current, modHandle);
+
+        for (int i = 0; i < forMod.length; i++) {
+            if (forMod[i] == listener) {
+                FlightOwnershipListener[] shrunk = new FlightOwnershipListener[forMod.length - 1];
+                System.arraycopy(forMod, 0, shrunk, 0, i);
+                System.arraycopy(forMod, i + 1, shrunk, i, shrunk.length - i);
+
+                FlightOwnershipListener[][] updated = current.clone();
+                updated[modHandle] = shrunk;
+                listeners = updated;
+                return;
+            }
+        }
+    }
+
+    public boolean hasListeners(int modHandle) {
+        return listenersOf(listeners, modHandle).length > 0;
+    }
+
+    /**
+     * @param mod The mod the change is reported to
+     * @param other A second mod involved, or -1
+     */
+    public void publish(FlightOwnershipChange change, UUID player, int mod, int other) {
+        if (!hasListeners(mod)) {
+            return;
+        }
+
+        synchronized (this) {
+            pending.add((byte) change.ordinal(), player, mod, other);
+        }
+    }
+
+    // Runs on the server thread at the end of every tick
+    public void dispatch() {
+        Buffer batch;
+        synchronized (this) {
+            if (pending.size == 0) {
+                return;
+            }
+            batch = pending;
+            pending = delivering;
+            delivering = batch;
+        }
+
+        FlightOwnershipListener[][] current = listeners;
+        for (int i = 0; i < batch.size; i++) {
+            int mod = batch.mods[i];
+            for (FlightOwnershipListener listener : listenersOf(current, mod)) {
+                try {
+                    listener.onOwnershipChange(CHANGES[batch.changes[i]], batch.players[i], mod, batch.others[i]);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("[FlightAPI] Ownership listener failed for {}", batch.players[i], e);
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    // Drops undelivered changes; subscriptions stay, mods register them once per game
+    public synchronized void clear() {
+        pending.clear();
+    }
+
+    private static FlightOwnershipListener[] listenersOf(FlightOwnershipListener[][] listeners, int modHandle) {
+        if (modHandle < 0 || modHandle >= listeners.length || listeners[modHandle] == null) {
+            return NO_LISTENERS;
+        }
+        return listeners[modHandle];
+    }
+
+    private static final class Buffer {
+        byte[] changes = new byte[64];
+        UUID[] players = new UUID[64];
+        int[] mods = new int[64];
+        int[] others = new int[64];
+        int size;
+
+        void add(byte change, UUID player, int mod, int other) {
+            if (size == changes.length) {
+                int capacity = size << 1;
+                changes = Arrays.copyOf(changes, capacity);
+                players = Arrays.copyOf(players, capacity);
+                mods = Arrays.copyOf(mods, capacity);
+                others = Arrays.copyOf(others, capacity);
+            }
+
+            changes[size] = change;
+            players[size] = player;
+            mods[size] = mod;
+            others[size] = other;
+            size++;
+        }
+
+        void clear() {
+            Arrays.fill(players, 0, size, null);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.denismasterherobrine.flightapi.lifecycle;
+
+import java.nio.file.Path;
+import java.util.UUID;
+
+import dev.denismasterherobrine.flightapi.manager.FlightEngines;
+import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetricsExporter;
+import dev.denismasterherobrine.flightapi.persistence.FlightStore;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.WorldSavePath;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Loader-independent player and server lifecycle hooks.
+ * Each platform forwards its own events here, so per-player flight state stays bounded by online players.
+ */
+public final class FlightLifecycle {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI/Lifecycle");
+
+    private static FlightStore store;
+    private static FlightMetricsExporter metricsExporter;
+
+    private FlightLifecycle() {}
+
+    public static void onServerStarting(MinecraftServer server) {
+        FlightManager manager = FlightManager.getInstance();
+        manager.attachServer(server);
+        Path directory = server.getSavePath(WorldSavePath.ROOT).resolve("flightapi");
+        store = new FlightStore(FlightEngines.current(), FlightEngines.services(), directory);
+
+        metricsExporter = new FlightMetricsExporter(manager,
+                FlightMetricsExporter.isExportEnabled() ? directory.resolve("metrics.txt") : null);
+        metricsExporter.start();
+    }
+
+    /**
+     * Restores saved ownership while the player's data is loaded, before any mod sees them join.
+     * Join handlers are not ordered between mods, so restoring on join could race a mod that requests flight there.
+     */
+    public static void onPlayerDataLoad(ServerPlayerEntity player) {
+        UUID playerUuid = player.getGameProfile().getId();
+        FlightEngines.services().playerOnline(playerUuid);
+        if (store != null) {
+            store.loadPlayer(playerUuid);
+        }
+    }
+
+    public static void onPlayerJoin(ServerPlayerEntity player) {
+        FlightEngines.services().playerOnline(player.getGameProfile().getId());
+        FlightManager.getInstance().reapplyFlight(player);
+    }
+
+    public static void onPlayerLeave(ServerPlayerEntity player) {
+        UUID playerUuid = player.getGameProfile().getId();
+
+        // First, so requests from other threads are refused instead of recreating the state evicted below
+        FlightEngines.services().playerOffline(playerUuid);
+        FlightManager manager = FlightManager.getInstance();
+        // Saved as part of the eviction, so no change can slip in between and leave the player dirty without state
+        manager.evictPlayer(playerUuid, (store != null) ? store::saveEvicted : snapshot -> {});
+        manager.forgetPosition(playerUuid);
+        manager.getAbilitySync().discard(playerUuid);
+    }
+
+    public static void onPlayerRespawn(ServerPlayerEntity player) {
+        FlightManager.getInstance().reapplyFlight(player);
+    }
+
+    public static void onPlayerChangeDimension(ServerPlayerEntity player) {
+        FlightManager.getInstance().reapplyFlight(player);
+    }
+
+    // Vanilla resets allowFlying/flying for the new game mode, e.g. when leaving creative
+    public static void onGameModeChange(ServerPlayerEntity player) {
+        FlightManager.getInstance().reapplyFlight(player);
+    }
+
+    public static void onServerTickEnd() {
+        FlightManager.getInstance().flushTick();
+        if (store != null) {
+            store.tick();
+        }
+        if (metricsExporter != null) {
+            metricsExporter.tick();
+        }
+    }
+
+    public static void onServerStopped() {
+        LOGGER.debug("[FlightAPI] Server stopped, dropping flight state of {} players", FlightManager.getInstance().trackedPlayerCount());
+        if (store != null) {
+            store.close();
+            store = null;
+        }
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+            metricsExporter = null;
+        }
+        FlightManager.getInstance().clear();
+    }
+}
@@ -0,0 +1,375 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.api.FlightOwnershipChange;
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+import dev.denismasterherobrine.flightapi.event.FlightEventBus;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetric;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetrics;
+import dev.denismasterherobrine.flightapi.trace.FlightTrace;
+import dev.denismasterherobrine.flightapi.trace.FlightTraceEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ownership transitions shared by the built-in engines, so they only differ in how player states are stored and
+ * locked. Every method taking a {@link PlayerFlightState} must be called while holding the lock that guards it.
+ */
+abstract class AbstractFlightEngine implements FlightEngine {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightManager");
+
+    // Outcomes of expire
+    static final int EXPIRY_STALE = 0;
+    static final int EXPIRY_RELEASED = 1;
+    static final int EXPIRY_CANCELLED = 2;
+
+    final FlightServices services;
+    final FlightModRegistry mods;
+    final FlightTrace trace;
+    final FlightMetrics metrics;
+    final FlightEventBus events;
+
+    // Updated under the affected player's lock, so it always agrees with the per-player state
+    final ModPlayerIndex index = new ModPlayerIndex();
+    final FlightLeaseWheel leaseWheel = new FlightLeaseWheel();
+
+    // Stamps for queue views; only bumped when a view is rebuilt, never on the request path
+    private final AtomicLong viewVersions = new AtomicLong();
+
+    AbstractFlightEngine(FlightServices services) {
+        this.services = services;
+        this.mods = services.getModRegistry();
+        this.trace = services.getTrace();
+        this.metrics = services.getMetrics();
+        this.events = services.getEvents();
+    }
+
+    /**
+     * Looks up the player's state, locks it and applies {@link #expireLocked} for one fired wheel entry.
+     * @return One of the EXPIRY_ outcomes
+     */
+    abstract int expire(UUID playerUuid, int modHandle, long deadline);
+
+    @Override
+    public void tick(Consumer<UUID> ownerChanged) {
+        leaseWheel.advance();
+        FlightLeaseWheel.Bucket fired = leaseWheel.fired;
+
+        for (int i = 0; i < fired.size; i++) {
+            UUID playerUuid = fired.players[i];
+            if (expire(playerUuid, fired.handles[i], fired.deadlines[i]) == EXPIRY_RELEASED) {
+                ownerChanged.accept(playerUuid);
+            }
+        }
+        fired.clear();
+    }
+
+    // Live read-only views maintained incrementally on every transition
+    @Override
+    public Set<UUID> ownedPlayers(int modHandle) {
+        return index.owned(modHandle);
+    }
+
+    @Override
+    public Set<UUID> queuedPlayers(int modHandle) {
+        return index.queued(modHandle);
+    }
+
+    FlightRequestResult acquireLocked(PlayerFlightState state, int modHandle, UUID playerUuid, int priority, boolean preempt, int leaseTicks) {
+        metrics.increment(FlightMetric.REQUESTS, modHandle);
+        boolean owns = transitionLocked(state, modHandle, playerUuid, priority, preempt);
+        if (leaseTicks > 0) {
+            lease(state, modHandle, playerUuid, leaseTicks);
+        }
+        return owns ? FlightRequestResult.GRANTED : FlightRequestResult.QUEUED;
+    }
+
+    FlightRequestResult rejectOffline(UUID playerUuid, int modHandle) {
+        LOGGER.debug("[FlightManager] {} is no longer online, dropping the request of {}", playerUuid, mods.name(modHandle));
+        return FlightRequestResult.REJECTED;
+    }
+
+    private boolean transitionLocked(PlayerFlightState state, int modHandle, UUID playerUuid, int priority, boolean preempt) {
+        boolean keepPriority = priority == KEEP_PRIORITY;
+        if (keepPriority) {
+            priority = DEFAULT_PRIORITY;
+        }
+
+        int currentOwner = state.owner;
+        if (currentOwner == modHandle) {
+            if (!keepPriority && state.ownerPriority != priority) {
+                state.ownerPriority = priority;
+                changed(state, playerUuid);
+            }
+            trace.record(FlightTraceEvent.ALREADY_OWNER, playerUuid, modHandle, FlightModRegistry.NONE);
+            return true;
+        }
+
+        if (currentOwner == FlightModRegistry.NONE) {
+            changed(state, playerUuid);
+            state.owner = modHandle;
+            state.ownerPriority = priority;
+            index.addOwned(modHandle, playerUuid);
+            trace.record(FlightTraceEvent.GRANTED, playerUuid, modHandle, FlightModRegistry.NONE);
+            metrics.increment(FlightMetric.GRANTS, modHandle);
+            events.publish(FlightOwnershipChange.GRANTED, playerUuid, modHandle, FlightModRegistry.NONE);
+            return true;
+        }
+
+        if (preempt && priority > state.ownerPriority) {
+            // The preempted owner resumes first among its priority once the new owner releases
+            changed(state, playerUuid);
+            if (state.queue.remove(modHandle)) {
+                index.removeQueued(modHandle, playerUuid);
+            }
+            state.queue.offerFirst(currentOwner, state.ownerPriority);
+            state.owner = modHandle;
+            state.ownerPriority = priority;
+            index.removeOwned(currentOwner, playerUuid);
+            index.addQueued(currentOwner, playerUuid);
+            index.addOwned(modHandle, playerUuid);
+            trace.record(FlightTraceEvent.PREEMPTED, playerUuid, modHandle, currentOwner);
+            metrics.increment(FlightMetric.GRANTS, modHandle);
+            metrics.increment(FlightMetric.PREEMPTIONS, currentOwner);
+            events.publish(FlightOwnershipChange.GRANTED, playerUuid, modHandle, currentOwner);
+            events.publish(FlightOwnershipChange.PREEMPTED, playerUuid, currentOwner, modHandle);
+            return true;
+        }
+
+        if (!state.queue.offer(modHandle, priority)) {
+            if (!keepPriority && state.queue.updatePriority(modHandle, priority)) {
+                changed(state, playerUuid);
+            }
+            return false;
+        }
+        index.addQueued(modHandle, playerUuid);
+        changed(state, playerUuid);
+        trace.record(FlightTraceEvent.QUEUED, playerUuid, modHandle, currentOwner);
+        metrics.increment(FlightMetric.QUEUED, modHandle);
+        events.publish(FlightOwnershipChange.QUEUED, playerUuid, modHandle, currentOwner);
+        return false;
+    }
+
+    boolean releaseLocked(PlayerFlightState state, int modHandle, UUID playerUuid) {
+        if (state.owner != modHandle) {
+            return false;
+        }
+
+        changed(state, playerUuid);
+        state.setLeaseDeadline(modHandle, 0);
+        int nextPriority = state.queue.peekPriority();
+        int nextOwner = state.queue.poll();
+        state.owner = nextOwner;
+        state.ownerPriority = nextPriority;
+        index.removeOwned(modHandle, playerUuid);
+
+        trace.record(FlightTraceEvent.RELEASED, playerUuid, modHandle, nextOwner);
+        metrics.increment(FlightMetric.RELEASES, modHandle);
+        events.publish(FlightOwnershipChange.RELEASED, playerUuid, modHandle, nextOwner);
+
+        if (nextOwner != FlightModRegistry.NONE) {
+            index.removeQueued(nextOwner, playerUuid);
+            index.addOwned(nextOwner, playerUuid);
+            trace.record(FlightTraceEvent.HANDOFF, playerUuid, nextOwner, modHandle);
+            metrics.increment(FlightMetric.HANDOFFS, nextOwner);
+            events.publish(FlightOwnershipChange.GRANTED, playerUuid, nextOwner, modHandle);
+        }
+        return true;
+    }
+
+    boolean cancelLocked(PlayerFlightState state, int modHandle, UUID playerUuid) {
+        if (!state.queue.remove(modHandle)) {
+            return false;
+        }
+
+        state.setLeaseDeadline(modHandle, 0);
+        index.removeQueued(modHandle, playerUuid);
+        changed(state, playerUuid);
+        trace.record(FlightTraceEvent.CANCELLED, playerUuid, modHandle, FlightModRegistry.NONE);
+        metrics.increment(FlightMetric.CANCELS, modHandle);
+        events.publish(FlightOwnershipChange.CANCELLED, playerUuid, modHandle, FlightModRegistry.NONE);
+        return true;
+    }
+
+    /**
+     * A lease keeps one wheel entry: extending it leaves the entry where it is, and the entry is moved to the new
+     * deadline when it fires, so renewing every tick doesn't pile up entries.
+     */
+    void lease(PlayerFlightState state, int modHandle, UUID playerUuid, int ticks) {
+        long deadline = leaseWheel.now() + ticks;
+        state.setLeaseDeadline(modHandle, deadline);
+
+        long scheduled = state.wheelDeadline(modHandle);
+        if (scheduled == 0 || scheduled > deadline) {
+            // Shortening a lease needs an earlier entry, the later one is recognized as stale when it fires
+            state.setWheelDeadline(modHandle, deadline);
+            leaseWheel.schedule(playerUuid, modHandle, deadline);
+        }
+        services.markDirty(playerUuid);
+    }
+
+    boolean renewLocked(PlayerFlightState state, int modHandle, UUID playerUuid, int ticks) {
+        if (!state.holds(modHandle) || state.leaseDeadline(modHandle) == 0) {
+            return false;
+        }
+
+        lease(state, modHandle, playerUuid, ticks);
+        return true;
+    }
+
+    // Expired owners hand off through the normal release path, expired queued requests are cancelled
+    int expireLocked(PlayerFlightState state, int modHandle, UUID playerUuid, long firedDeadline) {
+        if (state.wheelDeadline(modHandle) != firedDeadline) {
+            // Superseded by an earlier entry after the lease was shortened
+            return EXPIRY_STALE;
+        }
+
+        long deadline = state.leaseDeadline(modHandle);
+        if (deadline == 0) {
+            // Released or cancelled since the entry was scheduled
+            state.setWheelDeadline(modHandle, 0);
+            return EXPIRY_STALE;
+        }
+        if (deadline > firedDeadline) {
+            // Renewed, move the same entry to the new deadline
+            state.setWheelDeadline(modHandle, deadline);
+            leaseWheel.schedule(playerUuid, modHandle, deadline);
+            return EXPIRY_STALE;
+        }
+
+        state.setWheelDeadline(modHandle, 0);
+        trace.record(FlightTraceEvent.LEASE_EXPIRED, playerUuid, modHandle, FlightModRegistry.NONE);
+        metrics.increment(FlightMetric.LEASE_EXPIRIES, modHandle);
+        if (releaseLocked(state, modHandle, playerUuid)) {
+            return EXPIRY_RELEASED;
+        }
+        return cancelLocked(state, modHandle, playerUuid) ? EXPIRY_CANCELLED : EXPIRY_STALE;
+    }
+
+    // Hands the last state of an evicted player to the caller if it wasn't saved yet, a save after this finds nothing to do
+    void handOverLocked(PlayerFlightState state, UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved) {
+        if (services.clearDirty(playerUuid)) {
+            unsaved.accept(snapshotLocked(state, playerUuid));
+        }
+    }
+
+    // Purging notifies every mod that owned or queued for the player and marks them for saving, a logout does not
+    void retireLocked(PlayerFlightState state, UUID playerUuid, boolean purged) {
+        state.retired = true;
+        int owner = state.owner;
+
+        if (owner != FlightModRegistry.NONE) {
+            index.removeOwned(owner, playerUuid);
+            if (purged) {
+                events.publish(FlightOwnershipChange.PURGED, playerUuid, owner, FlightModRegistry.NONE);
+            }
+        }
+        for (int i = 0; i < state.queue.size(); i++) {
+            int modHandle = state.queue.handleAt(i);
+            index.removeQueued(modHandle, playerUuid);
+            if (purged) {
+                events.publish(FlightOwnershipChange.PURGED, playerUuid, modHandle, FlightModRegistry.NONE);
+            }
+        }
+
+        if (purged) {
+            services.markPurged(playerUuid);
+            trace.record(FlightTraceEvent.PURGED, playerUuid, owner, FlightModRegistry.NONE);
+            metrics.increment(FlightMetric.PURGES, FlightModRegistry.NONE);
+        }
+    }
+
+    // The saved owner only owns again if nobody took over in the meantime
+    void restoreLocked(PlayerFlightState state, PlayerFlightSnapshot snapshot) {
+        UUID playerUuid = snapshot.player();
+        if (state.owner != FlightModRegistry.NONE || state.queue.size() > 0) {
+            changed(state, playerUuid);
+        } else {
+            state.view = null;
+        }
+
+        if (snapshot.owner() != null) {
+            restoreRequest(state, playerUuid, snapshot.owner());
+        }
+        for (PlayerFlightSnapshot.Request request : snapshot.queue()) {
+            restoreRequest(state, playerUuid, request);
+        }
+    }
+
+    private void restoreRequest(PlayerFlightState state, UUID playerUuid, PlayerFlightSnapshot.Request request) {
+        int modHandle = mods.lookup(request.modId());
+        if (modHandle == FlightModRegistry.NONE) {
+            // A mod removed from the server must not hold on to flight forever
+            LOGGER.debug("[FlightManager] Dropping saved flight request of unregistered mod {} for {}", request.modId(), playerUuid);
+            services.markDirty(playerUuid);
+            return;
+        }
+        if (state.holds(modHandle)) {
+            return;
+        }
+
+        if (state.owner == FlightModRegistry.NONE) {
+            state.owner = modHandle;
+            state.ownerPriority = request.priority();
+            index.addOwned(modHandle, playerUuid);
+        } else if (state.queue.offer(modHandle, request.priority())) {
+            index.addQueued(modHandle, playerUuid);
+        } else {
+            return;
+        }
+
+        if (request.leaseTicks() > 0) {
+            lease(state, modHandle, playerUuid, request.leaseTicks());
+        }
+    }
+
+    PlayerFlightSnapshot snapshotLocked(PlayerFlightState state, UUID playerUuid) {
+        int size = state.queue.size();
+        int[] handles = new int[size];
+        int[] priorities = new int[size];
+        state.queue.copyOrdered(handles, priorities);
+
+        PlayerFlightSnapshot.Request[] queue = new PlayerFlightSnapshot.Request[size];
+        for (int i = 0; i < size; i++) {
+            queue[i] = snapshotRequest(state, handles[i], priorities[i]);
+        }
+
+        PlayerFlightSnapshot.Request owner = (state.owner == FlightModRegistry.NONE) ? null
+                : snapshotRequest(state, state.owner, state.ownerPriority);
+        return new PlayerFlightSnapshot(playerUuid, owner, List.of(queue));
+    }
+
+    private PlayerFlightSnapshot.Request snapshotRequest(PlayerFlightState state, int modHandle, int priority) {
+        long deadline = state.leaseDeadline(modHandle);
+        int leaseTicks = (deadline == 0) ? 0 : (int) Math.max(1, deadline - leaseWheel.now());
+        return new PlayerFlightSnapshot.Request(mods.name(modHandle), priority, leaseTicks);
+    }
+
+    FlightQueueView buildView(PlayerFlightState state) {
+        int size = state.queue.size();
+        int[] handles = new int[size];
+        state.queue.copyOrdered(handles, new int[size]);
+
+        String[] queue = new String[size];
+        for (int i = 0; i < size; i++) {
+            queue[i] = mods.name(handles[i]);
+        }
+        return new FlightQueueView(viewVersions.incrementAndGet(), mods.name(state.owner), List.of(queue));
+    }
+
+    /**
+     * Drops the published view and marks the player for saving. Called before the owner is written, so a reader that
+     * already saw the new owner can't get the old view afterwards.
+     */
+    void changed(PlayerFlightState state, UUID playerUuid) {
+        state.view = null;
+        services.markDirty(playerUuid);
+    }
+}
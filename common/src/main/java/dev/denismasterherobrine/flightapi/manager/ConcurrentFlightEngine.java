@@ -0,0 +1,253 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+
+/**
+ * The default engine. Each player's state is guarded by its own monitor, so requests for different players never
+ * contend, and owner and queue reads don't lock at all.
+ */
+public final class ConcurrentFlightEngine extends AbstractFlightEngine {
+    private final ConcurrentMap<UUID, PlayerFlightState> players = new ConcurrentHashMap<>();
+
+    public ConcurrentFlightEngine(FlightServices services) {
+        super(services);
+    }
+
+    @Override
+    public FlightRequestResult request(int modHandle, UUID playerUuid, int priority, boolean preempt, int leaseTicks) {
+        while (true) {
+            PlayerFlightState state = players.get(playerUuid);
+            boolean created = false;
+            if (state == null) {
+                PlayerFlightState fresh = new PlayerFlightState();
+                state = players.putIfAbsent(playerUuid, fresh);
+                if (state == null) {
+                    state = fresh;
+                    created = true;
+                }
+            }
+
+            synchronized (state) {
+                if (state.retired) {
+                    // Evicted between lookup and lock, retry with a fresh state
+                    continue;
+                }
+
+                // Checked under the lock eviction takes: a leave marks the player offline before evicting, so either
+                // this request lands in the state that gets evicted, or it sees the player gone
+                if (!services.isOnline(playerUuid)) {
+                    if (created && state.owner == FlightModRegistry.NONE && state.queue.size() == 0) {
+                        state.retired = true;
+                        players.remove(playerUuid, state);
+                    }
+                    return rejectOffline(playerUuid, modHandle);
+                }
+
+                long lockStart = metrics.lockAcquired();
+                try {
+                    return acquireLocked(state, modHandle, playerUuid, priority, preempt, leaseTicks);
+                } finally {
+                    metrics.lockReleased(lockStart);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean release(int modHandle, UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null || modHandle == FlightModRegistry.NONE) {
+            return false;
+        }
+
+        synchronized (state) {
+            if (state.retired) {
+                return false;
+            }
+
+            long lockStart = metrics.lockAcquired();
+            try {
+                return releaseLocked(state, modHandle, playerUuid);
+            } finally {
+                metrics.lockReleased(lockStart);
+            }
+        }
+    }
+
+    @Override
+    public boolean cancel(int modHandle, UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null || modHandle == FlightModRegistry.NONE) {
+            return false;
+        }
+
+        synchronized (state) {
+            // Evicted since the lookup; cancelling now would mark a player dirty whose state was already saved
+            return !state.retired && cancelLocked(state, modHandle, playerUuid);
+        }
+    }
+
+    @Override
+    public boolean renewLease(int modHandle, UUID playerUuid, int ticks) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null || modHandle == FlightModRegistry.NONE || ticks <= 0) {
+            return false;
+        }
+
+        synchronized (state) {
+            return !state.retired && renewLocked(state, modHandle, playerUuid, ticks);
+        }
+    }
+
+    @Override
+    int expire(UUID playerUuid, int modHandle, long deadline) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null) {
+            return EXPIRY_STALE;
+        }
+
+        synchronized (state) {
+            return state.retired ? EXPIRY_STALE : expireLocked(state, modHandle, playerUuid, deadline);
+        }
+    }
+
+    // One map lookup and a volatile read
+    @Override
+    public int owner(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        return (state == null) ? FlightModRegistry.NONE : state.owner;
+    }
+
+    /**
+     * Lock-free unless the player changed since the last read. The view is built once after each change and then
+     * shared by reference, so repeated reads neither lock nor copy.
+     */
+    @Override
+    public FlightQueueView queueView(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null) {
+            return FlightQueueView.EMPTY;
+        }
+
+        FlightQueueView view = state.view;
+        if (view != null) {
+            return view;
+        }
+
+        synchronized (state) {
+            if (state.retired) {
+                return FlightQueueView.EMPTY;
+            }
+            if (state.view == null) {
+                state.view = buildView(state);
+            }
+            return state.view;
+        }
+    }
+
+    // Live read-only view, for overviews that visit every player
+    @Override
+    public Set<UUID> trackedPlayers() {
+        return Collections.unmodifiableSet(players.keySet());
+    }
+
+    @Override
+    public int trackedPlayerCount() {
+        return players.size();
+    }
+
+    @Override
+    public int ownedPlayerCount() {
+        int owned = 0;
+        for (PlayerFlightState state : players.values()) {
+            if (state.owner != FlightModRegistry.NONE) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    @Override
+    public int queuedRequestCount() {
+        int queued = 0;
+        for (PlayerFlightState state : players.values()) {
+            synchronized (state) {
+                queued += state.queue.size();
+            }
+        }
+        return queued;
+    }
+
+    @Override
+    public PlayerFlightSnapshot snapshot(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null) {
+            return null;
+        }
+
+        synchronized (state) {
+            return state.retired ? null : snapshotLocked(state, playerUuid);
+        }
+    }
+
+    @Override
+    public void restore(PlayerFlightSnapshot snapshot) {
+        while (true) {
+            PlayerFlightState state = players.computeIfAbsent(snapshot.player(), id -> new PlayerFlightState());
+
+            synchronized (state) {
+                if (!state.retired) {
+                    restoreLocked(state, snapshot);
+                    return;
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean evict(UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved) {
+        return retire(playerUuid, unsaved, false);
+    }
+
+    @Override
+    public boolean purge(UUID playerUuid) {
+        return retire(playerUuid, null, true);
+    }
+
+    private boolean retire(UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved, boolean purged) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null) {
+            return false;
+        }
+
+        synchronized (state) {
+            if (state.retired) {
+                return false;
+            }
+
+            if (!purged) {
+                handOverLocked(state, playerUuid, unsaved);
+            }
+            retireLocked(state, playerUuid, purged);
+            players.remove(playerUuid, state);
+            return true;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (UUID playerUuid : players.keySet()) {
+            evict(playerUuid);
+        }
+        index.clear();
+        leaseWheel.clear();
+    }
+}
@@ -0,0 +1,132 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+import dev.denismasterherobrine.flightapi.network.FlightNetworking;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
+
+import net.minecraft.entity.player.PlayerAbilities;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Coalesces abilities updates into at most one packet per player per server tick.
+ * The first change of a tick remembers the abilities the client last saw, the flush at the end of the tick only sends
+ * a packet if allowFlying/flying actually differ from that.
+ */
+public final class FlightAbilitySync {
+    private static final int HANDOFF_CAPACITY = 4096;
+
+    // Players whose ownership changed off the server thread, written by any thread and drained by the server thread
+    private final BlockingQueue<ServerPlayerEntity> handOffs = new ArrayBlockingQueue<>(HANDOFF_CAPACITY);
+    private final ConcurrentMap<UUID, Pending> pending = new ConcurrentHashMap<>();
+    private final LongAdder packetsSent = new LongAdder();
+    private final LongAdder packetsSuppressed = new LongAdder();
+    private final LongAdder skippedAlwaysFlying = new LongAdder();
+    private final LongAdder payloadsSent = new LongAdder();
+
+    // Sync payload sequence, only touched by flush on the server thread
+    private int sequence;
+
+    FlightAbilitySync() {}
+
+    boolean handOff(ServerPlayerEntity player) {
+        return handOffs.offer(player);
+    }
+
+    void drainHandOffs(Consumer<ServerPlayerEntity> apply) {
+        ServerPlayerEntity player;
+        while ((player = handOffs.poll()) != null) {
+            if (!player.isRemoved()) {
+                apply.accept(player);
+            }
+        }
+    }
+
+    // Must be called on the server thread, before the abilities are mutated
+    void markDirty(ServerPlayerEntity player) {
+        UUID playerUuid = player.getGameProfile().getId();
+        Pending existing = pending.get(playerUuid);
+        if (existing != null && existing.player == player) {
+            return;
+        }
+
+        // A different entity means the player respawned this tick, track the new one from its current abilities
+        PlayerAbilities abilities = player.getAbilities();
+        pending.put(playerUuid, new Pending(player, abilities.allowFlying, abilities.flying));
+    }
+
+    /**
+     * Sends one update per player whose flight changed this tick: the compact sync payload if their client has
+     * FlightAPI, the vanilla abilities packet otherwise. Runs on the server thread.
+     * @param owners Looks up the current owner handle of a player for the payload
+     */
+    public void flush(ToIntFunction<UUID> owners) {
+        for (Iterator<Pending> it = pending.values().iterator(); it.hasNext(); ) {
+            Pending entry = it.next();
+            it.remove();
+
+            ServerPlayerEntity player = entry.player;
+            if (player.isRemoved()) {
+                // Respawned or disconnected this tick; the new entity gets its abilities from vanilla
+                packetsSuppressed.increment();
+                continue;
+            }
+
+            PlayerAbilities abilities = player.getAbilities();
+            if (abilities.allowFlying == entry.allowFlying && abilities.flying == entry.flying) {
+                packetsSuppressed.increment();
+                continue;
+            }
+
+            FlightSyncPayload payload = new FlightSyncPayload(++sequence,
+                    owners.applyAsInt(player.getGameProfile().getId()), abilities.allowFlying, abilities.flying);
+            if (FlightNetworking.trySend(player, payload)) {
+                payloadsSent.increment();
+                continue;
+            }
+
+            player.sendAbilitiesUpdate();
+            packetsSent.increment();
+        }
+    }
+
+    // An update for a creative or spectator player that was skipped before touching the abilities
+    void skipAlwaysFlying() {
+        skippedAlwaysFlying.increment();
+    }
+
+    public void discard(UUID playerUuid) {
+        pending.remove(playerUuid);
+    }
+
+    public void clear() {
+        handOffs.clear();
+        pending.clear();
+    }
+
+    public long packetsSent() {
+        return packetsSent.sum();
+    }
+
+    public long packetsSuppressed() {
+        return packetsSuppressed.sum();
+    }
+
+    public long payloadsSent() {
+        return payloadsSent.sum();
+    }
+
+    public long skippedAlwaysFlying() {
+        return skippedAlwaysFlying.sum();
+    }
+
+    private record Pending(ServerPlayerEntity player, boolean allowFlying, boolean flying) {}
+}
@@ -0,0 +1,113 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+
+/**
+ * Decides who owns each player's flight. An engine only keeps ownership, queue and lease state keyed by player UUID
+ * and reports into the {@link FlightServices} it was created with; validating players, applying abilities, zones and
+ * persistence live in {@link FlightManager} and the lifecycle around it.
+ * The engine in use is picked once on startup by {@link FlightEngines}. All methods may be called from any thread
+ * unless noted otherwise.
+ */
+public interface FlightEngine {
+    int DEFAULT_PRIORITY = 0;
+
+    // Keeps the priority of an existing request, new requests get DEFAULT_PRIORITY
+    int KEEP_PRIORITY = Integer.MIN_VALUE;
+
+    /**
+     * @param priority Queued requests with a higher priority take over first when the owner releases,
+     * or {@link #KEEP_PRIORITY} to leave an existing request's priority as it is
+     * @param preempt If true and the current owner has a lower priority, take over now and queue the owner at the front instead
+     * @param leaseTicks If positive, the request expires after this many ticks unless renewed; 0 keeps any existing lease
+     * @return {@link FlightRequestResult#GRANTED} if the mod owns the player's flight afterwards,
+     * {@link FlightRequestResult#QUEUED} if the request waits, or {@link FlightRequestResult#REJECTED} without any change
+     * if {@link FlightServices#isOnline} says the player is gone. The check and the change happen under the same lock
+     * eviction takes, so a request racing a logout can't recreate the evicted state.
+     */
+    FlightRequestResult request(int modHandle, UUID playerUuid, int priority, boolean preempt, int leaseTicks);
+
+    /**
+     * Hands ownership to the next queued request, if any.
+     * @return false if the mod did not own the player's flight
+     */
+    boolean release(int modHandle, UUID playerUuid);
+
+    /**
+     * @return false if the mod had no queued request for the player
+     */
+    boolean cancel(int modHandle, UUID playerUuid);
+
+    /**
+     * Extends the lease of an owned or queued request to expire {@code ticks} from now.
+     * @return false if the mod holds no leased request for this player
+     */
+    boolean renewLease(int modHandle, UUID playerUuid, int ticks);
+
+    /**
+     * Advances leases by one tick and releases or cancels the ones that ran out. Server thread only.
+     * @param ownerChanged Receives every player whose owner changed because a lease ran out
+     */
+    void tick(Consumer<UUID> ownerChanged);
+
+    /**
+     * @return The owning mod's handle, or {@link FlightModRegistry#NONE}. Read by the abilities mixins while player
+     * data is loaded, so it should not block for long or allocate.
+     */
+    int owner(UUID playerUuid);
+
+    /**
+     * @return The player's owner and queue, or {@link FlightQueueView#EMPTY} if the engine tracks nothing for them
+     */
+    FlightQueueView queueView(UUID playerUuid);
+
+    // Read-only views of the players a mod owns or is queued for
+    Set<UUID> ownedPlayers(int modHandle);
+
+    Set<UUID> queuedPlayers(int modHandle);
+
+    Set<UUID> trackedPlayers();
+
+    int trackedPlayerCount();
+
+    int ownedPlayerCount();
+
+    int queuedRequestCount();
+
+    /**
+     * @return A consistent copy of the player's state, or null if the engine tracks nothing for them
+     */
+    PlayerFlightSnapshot snapshot(UUID playerUuid);
+
+    /**
+     * Restores saved state. Requests of mods that are not registered are dropped, and if the player already has
+     * state, the saved requests are merged in behind it.
+     */
+    void restore(PlayerFlightSnapshot snapshot);
+
+    /**
+     * Drops the player's state without notifying anyone, e.g. on logout, and clears their dirty flag.
+     * @param unsaved Receives the player's last state if it changed since it was last saved. Called under the player's
+     * lock, so no change can happen between taking that state and dropping it
+     * @return false if the player had no state
+     */
+    boolean evict(UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved);
+
+    default boolean evict(UUID playerUuid) {
+        return evict(playerUuid, snapshot -> {});
+    }
+
+    /**
+     * Drops the player's state for good, notifies every mod that owned or queued for them and marks them for saving.
+     * @return false if the player had no state
+     */
+    boolean purge(UUID playerUuid);
+
+    // Drops all state, e.g. when the server stops
+    void clear();
+}
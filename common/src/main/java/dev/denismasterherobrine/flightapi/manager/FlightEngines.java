@@ -0,0 +1,67 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds the {@link FlightEngine} everything in FlightAPI goes through and the {@link FlightServices} it reports into.
+ * The engine is picked once on mod init from the {@code flightapi.engine} system property, e.g.
+ * {@code -Dflightapi.engine=synchronized}:
+ * <ul>
+ *     <li>{@code concurrent} (default) - {@link ConcurrentFlightEngine}, per-player locks and lock-free reads</li>
+ *     <li>{@code synchronized} - {@link SynchronizedFlightEngine}, one global lock for everything</li>
+ * </ul>
+ * Each engine keeps its own ownership state, so the choice is made before any player joins. Mod handles, listeners,
+ * trace settings and metrics live in the shared services and are kept when the engine changes.
+ */
+public final class FlightEngines {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightManager");
+
+    public static final String ENGINE_PROPERTY = "flightapi.engine";
+
+    private static final FlightServices SERVICES = new FlightServices();
+
+    // Mods may call FlightAPI before init picks the engine, so this starts out as the default
+    private static volatile FlightEngine current = new ConcurrentFlightEngine(SERVICES);
+
+    private FlightEngines() {}
+
+    public static FlightEngine current() {
+        return current;
+    }
+
+    public static FlightServices services() {
+        return SERVICES;
+    }
+
+    // Must run before the server starts, ownership state is not carried over to the new engine
+    public static void select(String name) {
+        String engine = (name == null || name.isBlank()) ? "concurrent" : name.trim().toLowerCase(Locale.ROOT);
+
+        FlightEngine selected;
+        switch (engine) {
+            case "default", "concurrent" -> selected = new ConcurrentFlightEngine(SERVICES);
+            case "synchronized" -> selected = new SynchronizedFlightEngine(SERVICES);
+            default -> {
+                LOGGER.warn("[FlightManager] Unknown flight engine '{}', using the concurrent one", name);
+                engine = "concurrent";
+                selected = new ConcurrentFlightEngine(SERVICES);
+            }
+        }
+
+        FlightEngine previous = current;
+        if (previous.trackedPlayerCount() > 0) {
+            LOGGER.warn("[FlightManager] Switching flight engines drops the state of {} tracked players", previous.trackedPlayerCount());
+        }
+        current = selected;
+        previous.clear();
+
+        LOGGER.info("[FlightManager] Using the {} flight engine", engine);
+    }
+
+    public static void selectFromSystemProperties() {
+        select(System.getProperty(ENGINE_PROPERTY));
+    }
+}
@@ -0,0 +1,98 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Hashed timer wheel for lease expiry, advanced once per server tick.
+ * Each lease sits in the bucket of its deadline tick, so a tick only visits the leases hashed to its bucket instead of
+ * every player. Renewing or releasing never searches the wheel: the engine keeps one entry per lease and,
+ * when it fires, either moves it to the renewed deadline or drops it if the lease is gone.
+ */
+final class FlightLeaseWheel {
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final Bucket[] buckets = new Bucket[WHEEL_SIZE];
+
+    // Leases that fired in the last advance, reused between ticks
+    final Bucket fired = new Bucket();
+
+    private volatile long now;
+
+    FlightLeaseWheel() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    long now() {
+        return now;
+    }
+
+    synchronized void schedule(UUID player, int handle, long deadline) {
+        // A deadline computed just before the clock moved past it fires on the next tick instead of a full round later
+        long tick = Math.max(deadline, now + 1);
+        buckets[(int) (tick & MASK)].add(player, handle, deadline);
+    }
+
+    /**
+     * Moves the clock one tick forward and collects the leases due by then into {@link #fired}.
+     * Must only be called from the server thread, which is also the only reader of {@link #fired}.
+     */
+    synchronized void advance() {
+        long tick = ++now;
+        fired.clear();
+
+        Bucket bucket = buckets[(int) (tick & MASK)];
+        int kept = 0;
+        for (int i = 0; i < bucket.size; i++) {
+            if (bucket.deadlines[i] <= tick) {
+                fired.add(bucket.players[i], bucket.handles[i], bucket.deadlines[i]);
+            } else {
+                // Due in a later round of the wheel
+                bucket.set(kept++, bucket.players[i], bucket.handles[i], bucket.deadlines[i]);
+            }
+        }
+        bucket.truncate(kept);
+    }
+
+    synchronized void clear() {
+        for (Bucket bucket : buckets) {
+            bucket.clear();
+        }
+        fired.clear();
+    }
+
+    static final class Bucket {
+        UUID[] players = new UUID[4];
+        int[] handles = new int[4];
+        long[] deadlines = new long[4];
+        int size;
+
+        void add(UUID player, int handle, long deadline) {
+            if (size == players.length) {
+                int capacity = size << 1;
+                players = Arrays.copyOf(players, capacity);
+                handles = Arrays.copyOf(handles, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            set(size++, player, handle, deadline);
+        }
+
+        void set(int index, UUID player, int handle, long deadline) {
+            players[index] = player;
+            handles[index] = handle;
+            deadlines[index] = deadline;
+        }
+
+        void truncate(int newSize) {
+            Arrays.fill(players, newSize, size, null);
+            size = newSize;
+        }
+
+        void clear() {
+            truncate(0);
+        }
+    }
+}
@@ -1,18 +1,37 @@
 package dev.denismasterherobrine.flightapi.manager;
 
 import java.util.*;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.api.FlightBatchResult;
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+import dev.denismasterherobrine.flightapi.event.FlightEventBus;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetrics;
+import dev.denismasterherobrine.flightapi.trace.FlightTrace;
+import dev.denismasterherobrine.flightapi.zone.FlightZonePolicy;
+
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Connects the selected {@link FlightEngine} to the game: validates players, applies ownership to their abilities,
+ * holds flight back in no-flight zones and drives the per-tick work. Ownership itself is decided by the engine.
+ */
 public class FlightManager {
     private static final Logger LOGGER = LoggerFactory.getLogger("FlightManager");
     private static final FlightManager INSTANCE = new FlightManager();
 
-    private final Map<UUID, Queue<String>> flightQueues = new HashMap<>();
-    private final Map<UUID, String> currentOwners = new HashMap<>();
+    private final FlightServices services = FlightEngines.services();
+    private final FlightModRegistry mods = services.getModRegistry();
+    private final FlightAbilitySync abilitySync = new FlightAbilitySync();
+    private final FlightZonePolicy zonePolicy = new FlightZonePolicy(services.getTrace());
+
+    private volatile MinecraftServer server;
 
     private FlightManager() {}
 
@@ -20,83 +39,311 @@ public class FlightManager {
         return INSTANCE;
     }
 
-    public synchronized boolean requestFlightControl(String modId, ServerPlayerEntity player) {
-        if (player == null) {
-            LOGGER.warn("[FlightManager] Player is null, can't request flight");
-            return false;
+    // Looked up on every call, the engine may only be replaced before the server starts
+    private static FlightEngine engine() {
+        return FlightEngines.current();
+    }
+
+    // Requests are only accepted for players the lifecycle reported online from now on
+    public void attachServer(MinecraftServer server) {
+        this.server = server;
+        services.trackOnlinePlayers();
+    }
+
+    public FlightTrace getTrace() {
+        return services.getTrace();
+    }
+
+    public FlightMetrics getMetrics() {
+        return services.getMetrics();
+    }
+
+    public FlightZonePolicy getZonePolicy() {
+        return zonePolicy;
+    }
+
+    public FlightEventBus getEvents() {
+        return services.getEvents();
+    }
+
+    public FlightModRegistry getModRegistry() {
+        return mods;
+    }
+
+    public FlightAbilitySync getAbilitySync() {
+        return abilitySync;
+    }
+
+    public int registerMod(String modId) {
+        if (modId == null || modId.isBlank()) {
+            LOGGER.warn("[FlightManager] Invalid modId! modId cannot be null or blank on registration.");
+            return FlightModRegistry.NONE;
         }
 
+        return mods.register(modId);
+    }
+
+    public boolean requestFlightControl(String modId, ServerPlayerEntity player) {
         if (modId == null || modId.isBlank()) {
             LOGGER.warn("[FlightManager] Invalid modId! modId cannot be null or blank on request.");
             return false;
         }
 
-        UUID playerUuid = player.getGameProfile().getId();
+        return requestFlightControl(mods.register(modId), player);
+    }
 
-        flightQueues.putIfAbsent(playerUuid, new LinkedList<>());
-        Queue<String> queue = flightQueues.get(playerUuid);
+    public boolean requestFlightControl(int modHandle, ServerPlayerEntity player) {
+        return requestFlightControl(modHandle, player, FlightEngine.DEFAULT_PRIORITY, false);
+    }
 
-        String currentOwner = currentOwners.get(playerUuid);
-        if (modId.equals(currentOwner)) {
-            LOGGER.info("[FlightManager] {} already owns flight for {}", modId, playerUuid);
-            setPlayerFlightEnabled(player, true);
-            return true;
+    /**
+     * @param priority Queued requests with a higher priority take over first when the owner releases
+     * @param preempt If true and the current owner has a lower priority, take over now and queue the owner at the front instead
+     */
+    public boolean requestFlightControl(int modHandle, ServerPlayerEntity player, int priority, boolean preempt) {
+        return requestFlightControl(modHandle, player, priority, preempt, 0);
+    }
+
+    /**
+     * @param priority The request's priority, or {@link FlightEngine#KEEP_PRIORITY} to leave an existing request's priority as it is
+     * @param leaseTicks If positive, the request expires after this many ticks unless renewed; 0 keeps any existing lease
+     */
+    public boolean requestFlightControl(int modHandle, ServerPlayerEntity player, int priority, boolean preempt, int leaseTicks) {
+        if (player == null) {
+            LOGGER.warn("[FlightManager] Player is null, can't request flight");
+            return false;
         }
 
-        if (currentOwner == null) {
-            currentOwners.put(playerUuid, modId);
-            LOGGER.info("[FlightManager] {} got flight control immediately for {}", modId, playerUuid);
-            setPlayerFlightEnabled(player, true);
-            return true;
+        if (!mods.isRegistered(modHandle)) {
+            LOGGER.warn("[FlightManager] Unknown mod handle {} on request.", modHandle);
+            return false;
         }
 
-        if (!queue.contains(modId)) {
-            queue.offer(modId);
-            LOGGER.info("[FlightManager] {} queued for flight, current owner = {}", modId, currentOwner);
+        if (engine().request(modHandle, player.getGameProfile().getId(), priority, preempt, leaseTicks) == FlightRequestResult.GRANTED) {
+            syncFlight(player);
+            return true;
         }
         return false;
     }
 
-    public synchronized void releaseFlightControl(String modId, ServerPlayerEntity player) {
-        if (player == null) {
-            LOGGER.warn("[FlightManager] Player is null, can't release flight");
-            return;
+    public FlightBatchResult requestFlightControl(int modHandle, Collection<ServerPlayerEntity> targets) {
+        FlightEngine engine = engine();
+        UUID[] uuids = new UUID[targets.size()];
+        FlightRequestResult[] results = new FlightRequestResult[uuids.length];
+        boolean registered = mods.isRegistered(modHandle);
+
+        int i = 0;
+        for (ServerPlayerEntity player : targets) {
+            if (player == null) {
+                results[i++] = FlightRequestResult.REJECTED;
+                continue;
+            }
+
+            // Recorded for rejected players too, so callers can tell who was rejected
+            UUID playerUuid = player.getGameProfile().getId();
+            uuids[i] = playerUuid;
+
+            if (!registered) {
+                results[i++] = FlightRequestResult.REJECTED;
+                continue;
+            }
+
+            FlightRequestResult result = engine.request(modHandle, playerUuid, FlightEngine.DEFAULT_PRIORITY, false, 0);
+            if (result == FlightRequestResult.GRANTED) {
+                syncFlight(player);
+            }
+            results[i++] = result;
         }
 
+        FlightBatchResult batch = new FlightBatchResult(uuids, results);
+        LOGGER.debug("[FlightManager] {} batch request: {} granted, {} queued, {} rejected",
+                mods.name(modHandle), batch.granted(), batch.queued(), batch.rejected());
+        return batch;
+    }
+
+    /**
+     * Extends the lease of an owned or queued request to expire {@code ticks} from now.
+     * @return false if the mod holds no leased request for this player
+     */
+    public boolean renewFlightLease(int modHandle, UUID playerUuid, int ticks) {
+        return engine().renewLease(modHandle, playerUuid, ticks);
+    }
+
+    public CompletableFuture<Boolean> requestFlightControlAsync(int modHandle, ServerPlayerEntity player) {
+        try {
+            return CompletableFuture.completedFuture(requestFlightControl(modHandle, player));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public void releaseFlightControl(String modId, ServerPlayerEntity player) {
         if (modId == null || modId.isBlank()) {
             LOGGER.warn("[FlightManager] Invalid modId! modId cannot be null or blank on release.");
             return;
         }
 
-        UUID playerUuid = player.getGameProfile().getId();
-
-        String currentOwner = currentOwners.get(playerUuid);
+        int modHandle = mods.lookup(modId);
+        if (modHandle != FlightModRegistry.NONE) {
+            releaseFlightControl(modHandle, player);
+        }
+    }
 
-        if (currentOwner == null) {
+    public void releaseFlightControl(int modHandle, ServerPlayerEntity player) {
+        if (player == null) {
+            LOGGER.warn("[FlightManager] Player is null, can't release flight");
             return;
         }
 
-        if (!currentOwner.equals(modId)) {
+        if (engine().release(modHandle, player.getGameProfile().getId())) {
+            syncFlight(player);
+        }
+    }
+
+    public int releaseFlightControl(int modHandle, Collection<ServerPlayerEntity> targets) {
+        FlightEngine engine = engine();
+        int released = 0;
+        for (ServerPlayerEntity player : targets) {
+            if (player != null && engine.release(modHandle, player.getGameProfile().getId())) {
+                syncFlight(player);
+                released++;
+            }
+        }
+
+        LOGGER.debug("[FlightManager] {} batch release: {} of {} players released", mods.name(modHandle), released, targets.size());
+        return released;
+    }
+
+    // Releases every player owned by this mod and drops its queued requests, visiting only this mod's players
+    public int releaseFlightControlAll(int modHandle) {
+        if (modHandle == FlightModRegistry.NONE) {
+            return 0;
+        }
+
+        FlightEngine engine = engine();
+
+        // The index sets are concurrent, removing entries while iterating them is safe
+        for (UUID playerUuid : engine.queuedPlayers(modHandle)) {
+            engine.cancel(modHandle, playerUuid);
+        }
+
+        int released = 0;
+        for (UUID playerUuid : engine.ownedPlayers(modHandle)) {
+            if (engine.release(modHandle, playerUuid)) {
+                syncFlight(playerUuid);
+                released++;
+            }
+        }
+
+        LOGGER.debug("[FlightManager] {} released flight for all {} owned players", mods.name(modHandle), released);
+        return released;
+    }
+
+    public CompletableFuture<Void> releaseFlightControlAsync(int modHandle, ServerPlayerEntity player) {
+        try {
+            releaseFlightControl(modHandle, player);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public Optional<String> getCurrentOwner(UUID playerUuid) {
+        return Optional.ofNullable(currentOwnerOrNull(playerUuid));
+    }
+
+    // Allocation-free variant of getCurrentOwner for hot paths
+    public String currentOwnerOrNull(UUID playerUuid) {
+        return mods.name(currentOwnerHandle(playerUuid));
+    }
+
+    public int currentOwnerHandle(UUID playerUuid) {
+        return engine().owner(playerUuid);
+    }
+
+    // Live read-only views maintained incrementally on every transition
+    public Set<UUID> getOwnedPlayers(int modHandle) {
+        return engine().ownedPlayers(modHandle);
+    }
+
+    public Set<UUID> getQueuedPlayers(int modHandle) {
+        return engine().queuedPlayers(modHandle);
+    }
+
+    public boolean isOwned(UUID playerUuid) {
+        return currentOwnerHandle(playerUuid) != FlightModRegistry.NONE;
+    }
+
+    // Restores owned flight after vanilla reset the abilities, e.g. on respawn or dimension change
+    public void reapplyFlight(ServerPlayerEntity player) {
+        if (player != null && isOwned(player.getGameProfile().getId())) {
+            syncFlight(player);
+        }
+    }
+
+    /**
+     * Applies the player's current ownership state to their abilities.
+     * Ownership transitions may happen on any thread, but abilities are only touched on the server thread, so calls from
+     * other threads are handed off and applied at the end of the tick. The state is re-read when applied, so handoffs
+     * can never apply out of order.
+     */
+    private void syncFlight(ServerPlayerEntity player) {
+        MinecraftServer server = player.getServer();
+        if (server == null || server.isOnThread()) {
+            applyFlight(player);
             return;
         }
 
-        currentOwners.remove(playerUuid);
-        Queue<String> queue = flightQueues.get(playerUuid);
+        if (!abilitySync.handOff(player)) {
+            LOGGER.warn("[FlightManager] Flight handoff queue is full, scheduling a server task for {}", player.getGameProfile().getId());
+            server.execute(() -> applyFlight(player));
+        }
+    }
 
-        if (queue == null || queue.isEmpty()) {
-            setPlayerFlightEnabled(player, false);
-            LOGGER.debug("[FlightManager] No next mod in queue. Flight disabled for {}", playerUuid);
+    // For transitions that only know the UUID; players that are offline have nothing to apply
+    private void syncFlight(UUID playerUuid) {
+        MinecraftServer server = this.server;
+        if (server == null) {
             return;
         }
 
-        String nextOwner = queue.poll();
-        currentOwners.put(playerUuid, nextOwner);
-        LOGGER.debug("[FlightManager] {} took flight control for {}", nextOwner, playerUuid);
-        setPlayerFlightEnabled(player, true);
+        if (!server.isOnThread()) {
+            server.execute(() -> syncFlight(playerUuid));
+            return;
+        }
+
+        ServerPlayerEntity player = server.getPlayerManager().getPlayer(playerUuid);
+        if (player != null) {
+            applyFlight(player);
+        }
+    }
+
+    private void applyFlight(ServerPlayerEntity player) {
+        UUID playerUuid = player.getGameProfile().getId();
+        setPlayerFlightEnabled(player, isOwned(playerUuid) && !zonePolicy.isSuspended(playerUuid));
+    }
+
+    public boolean isSuspended(UUID playerUuid) {
+        return zonePolicy.isSuspended(playerUuid);
     }
 
-    public synchronized Optional<String> getCurrentOwner(UUID playerUuid) {
-        return Optional.ofNullable(currentOwners.get(playerUuid));
+    // Drops zone tracking for a player who left; it is evaluated again when they join
+    public void forgetPosition(UUID playerUuid) {
+        zonePolicy.forget(playerUuid);
+    }
+
+    // Runs on the server thread at the end of every tick
+    public void flushTick() {
+        FlightEngine engine = engine();
+        MinecraftServer server = this.server;
+        if (server != null) {
+            zonePolicy.tick(server, engine, this::syncFlight);
+        }
+        engine.tick(this::syncFlight);
+        abilitySync.drainHandOffs(this::applyFlight);
+        // Before the flush, so flight changed by listeners still goes out this tick
+        services.getEvents().dispatch();
+        abilitySync.flush(engine::owner);
     }
 
     public void setPlayerFlightEnabled(ServerPlayerEntity player, boolean enabled) {
@@ -108,6 +355,15 @@ public class FlightManager {
         final boolean isSpectator = player.isSpectator();
         final boolean isCreative = player.getAbilities().creativeMode;
 
+        // Vanilla already lets creative and spectator players fly, nothing to change and no packet to send.
+        // Switching back to survival reapplies ownership through FlightLifecycle.onGameModeChange
+        if ((isSpectator || isCreative) && player.getAbilities().allowFlying) {
+            abilitySync.skipAlwaysFlying();
+            return;
+        }
+
+        abilitySync.markDirty(player);
+
         // Players who can always fly keep that permission, otherwise it is set based on the mods request
         player.getAbilities().allowFlying = enabled || isSpectator || isCreative;
 
@@ -117,23 +373,77 @@ public class FlightManager {
             player.getAbilities().flying = false;
         }
 
-        player.sendAbilitiesUpdate();
-
         LOGGER.debug("[FlightManager] setPlayerFlightEnabled({}, {}) done", player.getGameProfile().getId(), enabled);
     }
 
-    public synchronized Optional<List<String>> getFlightQueueSnapshot(UUID playerUuid) {
-        Queue<String> queue = flightQueues.get(playerUuid);
-        return (queue == null) ? Optional.empty() : Optional.of(List.copyOf(queue));
+    public Optional<List<String>> getFlightQueueSnapshot(UUID playerUuid) {
+        FlightQueueView view = queueView(playerUuid);
+        return (view == FlightQueueView.EMPTY) ? Optional.empty() : Optional.of(view.queue());
+    }
+
+    /**
+     * The player's owner and queue. The view is built once after each change and then shared by reference, so
+     * repeated reads don't copy.
+     */
+    public FlightQueueView queueView(UUID playerUuid) {
+        return engine().queueView(playerUuid);
+    }
+
+    public void cancelQueuedRequest(String modId, UUID playerUuid) {
+        int modHandle = mods.lookup(modId);
+        if (modHandle != FlightModRegistry.NONE) {
+            cancelQueuedRequest(modHandle, playerUuid);
+        }
+    }
+
+    public void cancelQueuedRequest(int modHandle, UUID playerUuid) {
+        engine().cancel(modHandle, playerUuid);
+    }
+
+    // Drops the player's state for good, including anything persisted for them
+    public void purgePlayer(UUID playerUuid) {
+        engine().purge(playerUuid);
+    }
+
+    /**
+     * Drops the player's in-memory state without marking it dirty.
+     * @return true if the player had state
+     */
+    public boolean evictPlayer(UUID playerUuid) {
+        return engine().evict(playerUuid);
+    }
+
+    /**
+     * Drops the player's in-memory state on logout.
+     * @param unsaved Receives the player's last state, under the player's lock, if it changed since it was last saved
+     * @return true if the player had state
+     */
+    public boolean evictPlayer(UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved) {
+        return engine().evict(playerUuid, unsaved);
+    }
+
+    public void clear() {
+        engine().clear();
+        services.clear();
+        zonePolicy.clearTracking();
+        abilitySync.clear();
+        server = null;
+    }
+
+    public int trackedPlayerCount() {
+        return engine().trackedPlayerCount();
+    }
+
+    // Read-only view of every player with flight state, for overviews that visit them all
+    public Set<UUID> trackedPlayers() {
+        return engine().trackedPlayers();
     }
 
-    public synchronized void cancelQueuedRequest(String modId, UUID playerUuid) {
-        Queue<String> queue = flightQueues.get(playerUuid);
-        if (queue != null) queue.remove(modId);
+    public int ownedPlayerCount() {
+        return engine().ownedPlayerCount();
     }
 
-    public synchronized void purgePlayer(UUID playerUuid) {
-        currentOwners.remove(playerUuid);
-        flightQueues.remove(playerUuid);
+    public int queuedRequestCount() {
+        return engine().queuedRequestCount();
     }
-}
\ No newline at end of file
+}
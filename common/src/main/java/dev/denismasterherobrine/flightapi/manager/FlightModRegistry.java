@@ -0,0 +1,68 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns modIds into small int handles, so per-player state can store owners and queues as primitives.
+ * Handles are dense, start at 0 and stay valid until the game exits.
+ */
+public final class FlightModRegistry {
+    public static final int NONE = -1;
+
+    private final ConcurrentMap<String, Integer> handles = new ConcurrentHashMap<>();
+    private volatile String[] names = new String[16];
+    private int size;
+
+    FlightModRegistry() {}
+
+    public int register(String modId) {
+        Integer handle = handles.get(modId);
+        if (handle != null) {
+            return handle;
+        }
+
+        synchronized (this) {
+            handle = handles.get(modId);
+            if (handle != null) {
+                return handle;
+            }
+
+            String[] current = names;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size << 1);
+            }
+            current[size] = modId;
+            names = current;
+
+            // Publishing through the map happens-after the name store above
+            handles.put(modId, size);
+            return size++;
+        }
+    }
+
+    /**
+     * @return The handle of an already registered modId, or {@link #NONE} without registering it.
+     */
+    public int lookup(String modId) {
+        if (modId == null) {
+            return NONE;
+        }
+
+        Integer handle = handles.get(modId);
+        return (handle == null) ? NONE : handle;
+    }
+
+    /**
+     * @return The modId interned as this handle, or null for {@link #NONE} and unknown handles.
+     */
+    public String name(int handle) {
+        String[] current = names;
+        return (handle < 0 || handle >= current.length) ? null : current[handle];
+    }
+
+    public boolean isRegistered(int handle) {
+        return name(handle) != null;
+    }
+}
@@ -0,0 +1,109 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.event.FlightEventBus;
+import dev.denismasterherobrine.flightapi.metrics.FlightMetrics;
+import dev.denismasterherobrine.flightapi.trace.FlightTrace;
+
+/**
+ * State shared by every {@link FlightEngine}: interned modIds, the trace, metrics, ownership events and the players
+ * that need saving. Engines report into these and keep nothing else outside their own ownership state, so an engine
+ * can be replaced without losing handles, listeners or counters.
+ */
+public final class FlightServices {
+    private final FlightModRegistry mods = new FlightModRegistry();
+    private final FlightTrace trace = new FlightTrace(mods);
+    private final FlightMetrics metrics = new FlightMetrics(mods);
+    private final FlightEventBus events = new FlightEventBus();
+
+    // Players whose state changed since it was last persisted
+    private final Set<UUID> dirtyPlayers = ConcurrentHashMap.newKeySet();
+
+    // Purged players whose saved state must be deleted, the only reason a save may delete a file for a missing state
+    private final Set<UUID> purgedPlayers = ConcurrentHashMap.newKeySet();
+
+    // Players between join and leave; null while no server reports them, then engines accept requests for anyone
+    private volatile Set<UUID> onlinePlayers;
+
+    public FlightModRegistry getModRegistry() {
+        return mods;
+    }
+
+    public FlightTrace getTrace() {
+        return trace;
+    }
+
+    public FlightMetrics getMetrics() {
+        return metrics;
+    }
+
+    public FlightEventBus getEvents() {
+        return events;
+    }
+
+    // Engines call this for every change that should end up on disk
+    public void markDirty(UUID playerUuid) {
+        dirtyPlayers.add(playerUuid);
+    }
+
+    // Hands every player changed since the last call to the consumer and forgets them
+    public void drainDirty(Consumer<UUID> consumer) {
+        for (Iterator<UUID> it = dirtyPlayers.iterator(); it.hasNext(); ) {
+            UUID playerUuid = it.next();
+            it.remove();
+            consumer.accept(playerUuid);
+        }
+    }
+
+    public boolean clearDirty(UUID playerUuid) {
+        return dirtyPlayers.remove(playerUuid);
+    }
+
+    // Marks the player for saving as well, so the next save deletes their file
+    public void markPurged(UUID playerUuid) {
+        purgedPlayers.add(playerUuid);
+        dirtyPlayers.add(playerUuid);
+    }
+
+    public boolean clearPurged(UUID playerUuid) {
+        return purgedPlayers.remove(playerUuid);
+    }
+
+    // From now on engines only create or change state for players reported online
+    public void trackOnlinePlayers() {
+        onlinePlayers = ConcurrentHashMap.newKeySet();
+    }
+
+    public void playerOnline(UUID playerUuid) {
+        Set<UUID> online = onlinePlayers;
+        if (online != null) {
+            online.add(playerUuid);
+        }
+    }
+
+    // Must be called before the player's state is evicted, so no request can recreate it afterwards
+    public void playerOffline(UUID playerUuid) {
+        Set<UUID> online = onlinePlayers;
+        if (online != null) {
+            online.remove(playerUuid);
+        }
+    }
+
+    public boolean isOnline(UUID playerUuid) {
+        Set<UUID> online = onlinePlayers;
+        return online == null || online.contains(playerUuid);
+    }
+
+    // Drops per-server state; handles, trace settings and counters survive until the game exits
+    public void clear() {
+        events.clear();
+        dirtyPlayers.clear();
+        purgedPlayers.clear();
+        onlinePlayers = null;
+    }
+}
@@ -0,0 +1,88 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from mod handle to the players it owns or is queued for.
+ * Updated by the engine under the affected player's lock, so it always agrees with the per-player state.
+ * Lookups cost time proportional to the mod's own players, never to the whole server.
+ */
+final class ModPlayerIndex {
+    private volatile Entry[] entries = new Entry[16];
+
+    void addOwned(int handle, UUID playerUuid) {
+        entry(handle).owned.add(playerUuid);
+    }
+
+    void removeOwned(int handle, UUID playerUuid) {
+        Entry entry = existing(handle);
+        if (entry != null) {
+            entry.owned.remove(playerUuid);
+        }
+    }
+
+    void addQueued(int handle, UUID playerUuid) {
+        entry(handle).queued.add(playerUuid);
+    }
+
+    void removeQueued(int handle, UUID playerUuid) {
+        Entry entry = existing(handle);
+        if (entry != null) {
+            entry.queued.remove(playerUuid);
+        }
+    }
+
+    Set<UUID> owned(int handle) {
+        Entry entry = existing(handle);
+        return (entry == null) ? Set.of() : entry.ownedView;
+    }
+
+    Set<UUID> queued(int handle) {
+        Entry entry = existing(handle);
+        return (entry == null) ? Set.of() : entry.queuedView;
+    }
+
+    void clear() {
+        for (Entry entry : entries) {
+            if (entry != null) {
+                entry.owned.clear();
+                entry.queued.clear();
+            }
+        }
+    }
+
+    private Entry existing(int handle) {
+        Entry[] current = entries;
+        return (handle < 0 || handle >= current.length) ? null : current[handle];
+    }
+
+    private Entry entry(int handle) {
+        Entry entry = existing(handle);
+        if (entry != null) {
+            return entry;
+        }
+
+        synchronized (this) {
+            Entry[] current = entries;
+            if (handle >= current.length) {
+                current = Arrays.copyOf(current, Math.max(handle + 1, current.length << 1));
+            }
+            if (current[handle] == null) {
+                current[handle] = new Entry();
+            }
+            entries = current;
+            return current[handle];
+        }
+    }
+
+    private static final class Entry {
+        final Set<UUID> owned = ConcurrentHashMap.newKeySet();
+        final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+        final Set<UUID> ownedView = Collections.unmodifiableSet(owned);
+        final Set<UUID> queuedView = Collections.unmodifiableSet(queued);
+    }
+}
@@ -0,0 +1,210 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Arrays;
+
+/**
+ * Priority queue of mod handles backed by an indexed binary heap of parallel int/long arrays.
+ * Higher priorities come first, equal priorities are served in request order. A position table indexed by handle
+ * makes membership checks O(1) and offer, poll, remove and re-prioritizing O(log n), without per-entry allocation.
+ * Not thread-safe, guarded by the owning {@link PlayerFlightState}.
+ */
+final class ModQueue {
+    private int[] handles = new int[4];
+    private int[] priorities = new int[4];
+    private long[] sequences = new long[4];
+    private int size;
+
+    // Heap slot of each handle, or -1 if the handle is not queued
+    private int[] positions = new int[0];
+
+    // Request order for tie-breaking; entries put back at the front count down from 0
+    private long nextTail;
+    private long nextHead = -1;
+
+    boolean contains(int handle) {
+        return handle >= 0 && handle < positions.length && positions[handle] >= 0;
+    }
+
+    boolean offer(int handle, int priority) {
+        return insert(handle, priority, nextTail++);
+    }
+
+    // Queues the handle ahead of everything with the same priority, e.g. an owner that was preempted
+    boolean offerFirst(int handle, int priority) {
+        return insert(handle, priority, nextHead--);
+    }
+
+    /**
+     * @return true if the handle is queued and its priority changed; it keeps its place among equal priorities.
+     */
+    boolean updatePriority(int handle, int priority) {
+        if (!contains(handle)) {
+            return false;
+        }
+
+        int slot = positions[handle];
+        int previous = priorities[slot];
+        if (previous == priority) {
+            return false;
+        }
+
+        priorities[slot] = priority;
+        if (priority > previous) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+        return true;
+    }
+
+    int peekPriority() {
+        return size == 0 ? 0 : priorities[0];
+    }
+
+    int poll() {
+        if (size == 0) {
+            return FlightModRegistry.NONE;
+        }
+
+        int handle = handles[0];
+        removeAt(0);
+        return handle;
+    }
+
+    boolean remove(int handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+
+        removeAt(positions[handle]);
+        return true;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Heap order, not handoff order; use copyOrdered when the order matters
+    int handleAt(int index) {
+        return handles[index];
+    }
+
+    /**
+     * Copies the queued handles and their priorities in handoff order.
+     * Both arrays must have at least {@link #size()} elements.
+     */
+    void copyOrdered(int[] handlesOut, int[] prioritiesOut) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> before(a, b) ? -1 : (before(b, a) ? 1 : 0));
+
+        for (int i = 0; i < size; i++) {
+            handlesOut[i] = handles[order[i]];
+            prioritiesOut[i] = priorities[order[i]];
+        }
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[handles[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean insert(int handle, int priority, long sequence) {
+        if (contains(handle)) {
+            return false;
+        }
+
+        if (size == handles.length) {
+            int capacity = size << 1;
+            handles = Arrays.copyOf(handles, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+        }
+        if (handle >= positions.length) {
+            int previous = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(handle + 1, previous << 1));
+            Arrays.fill(positions, previous, positions.length, -1);
+        }
+
+        int slot = size++;
+        handles[slot] = handle;
+        priorities[slot] = priority;
+        sequences[slot] = sequence;
+        positions[handle] = slot;
+        siftUp(slot);
+        return true;
+    }
+
+    private void removeAt(int slot) {
+        positions[handles[slot]] = -1;
+
+        int last = --size;
+        if (slot == last) {
+            return;
+        }
+
+        move(last, slot);
+        siftDown(slot);
+        siftUp(slot);
+    }
+
+    private boolean before(int a, int b) {
+        return priorities[a] > priorities[b] || (priorities[a] == priorities[b] && sequences[a] < sequences[b]);
+    }
+
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!before(slot, parent)) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    private void siftDown(int slot) {
+        while (true) {
+            int child = (slot << 1) + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && before(child + 1, child)) {
+                child++;
+            }
+            if (!before(child, slot)) {
+                return;
+            }
+            swap(slot, child);
+            slot = child;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int handle = handles[a];
+        int priority = priorities[a];
+        long sequence = sequences[a];
+
+        move(b, a);
+
+        handles[b] = handle;
+        priorities[b] = priority;
+        sequences[b] = sequence;
+        positions[handle] = b;
+    }
+
+    private void move(int from, int to) {
+        handles[to] = handles[from];
+        priorities[to] = priorities[from];
+        sequences[to] = sequences[from];
+        positions[handles[to]] = to;
+    }
+}
@@ -0,0 +1,32 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable copy of one player's flight state, taken under that player's lock.
+ * @param owner The current owner's request, or null if nobody owns flight
+ * @param queue The queued requests in handoff order
+ */
+public record PlayerFlightSnapshot(UUID player, Request owner, List<Request> queue) {
+    /**
+     * @param leaseTicks Ticks left until the request's lease expires, or 0 if it is not leased
+     */
+    public record Request(String modId, int priority, int leaseTicks) {}
+
+    public String ownerModId() {
+        return (owner == null) ? null : owner.modId();
+    }
+
+    public List<String> queuedModIds() {
+        String[] modIds = new String[queue.size()];
+        for (int i = 0; i < modIds.length; i++) {
+            modIds[i] = queue.get(i).modId();
+        }
+        return List.of(modIds);
+    }
+
+    public boolean isEmpty() {
+        return owner == null && queue.isEmpty();
+    }
+}
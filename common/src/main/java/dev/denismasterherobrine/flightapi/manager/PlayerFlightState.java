@@ -0,0 +1,63 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.Arrays;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+
+/**
+ * Ownership and priority queue state of a single player, stored as interned mod handles.
+ * All mutations happen while holding this object's monitor, so requests for different players never contend.
+ * The owner is volatile so it can be read without locking.
+ */
+final class PlayerFlightState {
+    final ModQueue queue = new ModQueue();
+    volatile int owner = FlightModRegistry.NONE;
+    int ownerPriority;
+
+    // Lease deadline tick per mod handle, 0 if that mod's request is not leased; allocated on first lease
+    private long[] leaseDeadlines;
+
+    // Deadline of the one wheel entry per mod handle, 0 if none; may lag behind the lease after a renew
+    private long[] wheelDeadlines;
+
+    // Published view of owner and queue, null after a change until the next reader rebuilds it
+    volatile FlightQueueView view;
+
+    // Set once the state was removed from the manager; holders of a stale reference must look it up again
+    boolean retired;
+
+    long leaseDeadline(int handle) {
+        return get(leaseDeadlines, handle);
+    }
+
+    void setLeaseDeadline(int handle, long deadline) {
+        leaseDeadlines = set(leaseDeadlines, handle, deadline);
+    }
+
+    long wheelDeadline(int handle) {
+        return get(wheelDeadlines, handle);
+    }
+
+    void setWheelDeadline(int handle, long deadline) {
+        wheelDeadlines = set(wheelDeadlines, handle, deadline);
+    }
+
+    boolean holds(int handle) {
+        return owner == handle || queue.contains(handle);
+    }
+
+    private static long get(long[] values, int handle) {
+        return (values == null || handle >= values.length) ? 0 : values[handle];
+    }
+
+    private static long[] set(long[] values, int handle, long value) {
+        if (values == null || handle >= values.length) {
+            if (value == 0) {
+                return values;
+            }
+            values = (values == null) ? new long[handle + 1] : Arrays.copyOf(values, handle + 1);
+        }
+        values[handle] = value;
+        return values;
+    }
+}
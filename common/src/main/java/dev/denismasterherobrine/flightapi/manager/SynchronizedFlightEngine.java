@@ -0,0 +1,162 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+
+/**
+ * Keeps every player in one map behind a single monitor, the way FlightAPI worked before state was locked per player:
+ * every request, release and read waits for all others. Selected with {@code -Dflightapi.engine=synchronized} to
+ * compare the default engine against under real load, or as a fallback while chasing a suspected race.
+ */
+public final class SynchronizedFlightEngine extends AbstractFlightEngine {
+    private final Map<UUID, PlayerFlightState> players = new HashMap<>();
+
+    public SynchronizedFlightEngine(FlightServices services) {
+        super(services);
+    }
+
+    @Override
+    public synchronized FlightRequestResult request(int modHandle, UUID playerUuid, int priority, boolean preempt, int leaseTicks) {
+        if (!services.isOnline(playerUuid)) {
+            return rejectOffline(playerUuid, modHandle);
+        }
+
+        long lockStart = metrics.lockAcquired();
+        try {
+            PlayerFlightState state = players.computeIfAbsent(playerUuid, id -> new PlayerFlightState());
+            return acquireLocked(state, modHandle, playerUuid, priority, preempt, leaseTicks);
+        } finally {
+            metrics.lockReleased(lockStart);
+        }
+    }
+
+    @Override
+    public synchronized boolean release(int modHandle, UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null || modHandle == FlightModRegistry.NONE) {
+            return false;
+        }
+
+        long lockStart = metrics.lockAcquired();
+        try {
+            return releaseLocked(state, modHandle, playerUuid);
+        } finally {
+            metrics.lockReleased(lockStart);
+        }
+    }
+
+    @Override
+    public synchronized boolean cancel(int modHandle, UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        return state != null && modHandle != FlightModRegistry.NONE && cancelLocked(state, modHandle, playerUuid);
+    }
+
+    @Override
+    public synchronized boolean renewLease(int modHandle, UUID playerUuid, int ticks) {
+        PlayerFlightState state = players.get(playerUuid);
+        return state != null && modHandle != FlightModRegistry.NONE && ticks > 0 && renewLocked(state, modHandle, playerUuid, ticks);
+    }
+
+    @Override
+    synchronized int expire(UUID playerUuid, int modHandle, long deadline) {
+        PlayerFlightState state = players.get(playerUuid);
+        return (state == null) ? EXPIRY_STALE : expireLocked(state, modHandle, playerUuid, deadline);
+    }
+
+    @Override
+    public synchronized int owner(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        return (state == null) ? FlightModRegistry.NONE : state.owner;
+    }
+
+    @Override
+    public synchronized FlightQueueView queueView(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        if (state == null) {
+            return FlightQueueView.EMPTY;
+        }
+
+        if (state.view == null) {
+            state.view = buildView(state);
+        }
+        return state.view;
+    }
+
+    // A copy, the map itself may only be touched under the monitor
+    @Override
+    public synchronized Set<UUID> trackedPlayers() {
+        return Set.copyOf(players.keySet());
+    }
+
+    @Override
+    public synchronized int trackedPlayerCount() {
+        return players.size();
+    }
+
+    @Override
+    public synchronized int ownedPlayerCount() {
+        int owned = 0;
+        for (PlayerFlightState state : players.values()) {
+            if (state.owner != FlightModRegistry.NONE) {
+                owned++;
+            }
+        }
+        return owned;
+    }
+
+    @Override
+    public synchronized int queuedRequestCount() {
+        int queued = 0;
+        for (PlayerFlightState state : players.values()) {
+            queued += state.queue.size();
+        }
+        return queued;
+    }
+
+    @Override
+    public synchronized PlayerFlightSnapshot snapshot(UUID playerUuid) {
+        PlayerFlightState state = players.get(playerUuid);
+        return (state == null) ? null : snapshotLocked(state, playerUuid);
+    }
+
+    @Override
+    public synchronized void restore(PlayerFlightSnapshot snapshot) {
+        restoreLocked(players.computeIfAbsent(snapshot.player(), id -> new PlayerFlightState()), snapshot);
+    }
+
+    @Override
+    public synchronized boolean evict(UUID playerUuid, Consumer<PlayerFlightSnapshot> unsaved) {
+        PlayerFlightState state = players.remove(playerUuid);
+        if (state == null) {
+            return false;
+        }
+
+        handOverLocked(state, playerUuid, unsaved);
+        retireLocked(state, playerUuid, false);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean purge(UUID playerUuid) {
+        PlayerFlightState state = players.remove(playerUuid);
+        if (state == null) {
+            return false;
+        }
+
+        retireLocked(state, playerUuid, true);
+        return true;
+    }
+
+    @Override
+    public synchronized void clear() {
+        players.clear();
+        index.clear();
+        leaseWheel.clear();
+    }
+}
@@ -0,0 +1,24 @@
+package dev.denismasterherobrine.flightapi.metrics;
+
+public enum FlightMetric {
+    REQUESTS("requests"),
+    GRANTS("grants"),
+    QUEUED("queued"),
+    PREEMPTIONS("preemptions"),
+    RELEASES("releases"),
+    HANDOFFS("handoffs"),
+    CANCELS("cancels"),
+    PURGES("purges"),
+    LEASE_EXPIRIES("lease_expiries");
+
+    private final String key;
+
+    FlightMetric(String key) {
+        this.key = key;
+    }
+
+    // Name used in the stats command, JMX and the text export
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,198 @@
+package dev.denismasterherobrine.flightapi.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+
+/**
+ * Global and per-mod counters of ownership transitions, plus a histogram of how long per-player locks are held.
+ * Everything is a {@link LongAdder}, so threads requesting flight for different players never contend on a counter.
+ * Lock timing costs two {@link System#nanoTime()} calls per transition and is off unless enabled.
+ */
+public final class FlightMetrics {
+    private static final FlightMetric[] METRICS = FlightMetric.values();
+
+    // Bucket i counts hold times below 2^i nanoseconds, the last one everything longer
+    static final int HOLD_BUCKETS = 32;
+
+    private final FlightModRegistry mods;
+    private final LongAdder[] global = newCounters();
+
+    // Counters per mod handle, allocated the first time a mod records anything
+    private volatile LongAdder[][] perMod = new LongAdder[16][];
+
+    private final LongAdder[] holdBuckets = new LongAdder[HOLD_BUCKETS];
+    private final LongAdder holdTotalNanos = new LongAdder();
+
+    private volatile boolean lockTiming;
+
+    public FlightMetrics(FlightModRegistry mods) {
+        this.mods = mods;
+        for (int i = 0; i < HOLD_BUCKETS; i++) {
+            holdBuckets[i] = new LongAdder();
+        }
+    }
+
+    public void increment(FlightMetric metric, int modHandle) {
+        global[metric.ordinal()].increment();
+        if (modHandle >= 0) {
+            countersOf(modHandle)[metric.ordinal()].increment();
+        }
+    }
+
+    /**
+     * @return A start timestamp for {@link #lockReleased(long)}, or 0 if lock timing is off.
+     */
+    public long lockAcquired() {
+        return lockTiming ? System.nanoTime() : 0;
+    }
+
+    public void lockReleased(long start) {
+        if (start == 0) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - start;
+        holdTotalNanos.add(nanos);
+        holdBuckets[Math.min(HOLD_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(nanos))].increment();
+    }
+
+    public void setLockTiming(boolean lockTiming) {
+        this.lockTiming = lockTiming;
+    }
+
+    public boolean isLockTiming() {
+        return lockTiming;
+    }
+
+    public long get(FlightMetric metric) {
+        return global[metric.ordinal()].sum();
+    }
+
+    /**
+     * @return The mod's count, or 0 if it never recorded this metric.
+     */
+    public long get(FlightMetric metric, int modHandle) {
+        LongAdder[][] current = perMod;
+        if (modHandle < 0 || modHandle >= current.length || current[modHandle] == null) {
+            return 0;
+        }
+        return current[modHandle][metric.ordinal()].sum();
+    }
+
+    public long lockHoldSamples() {
+        long samples = 0;
+        for (LongAdder bucket : holdBuckets) {
+            samples += bucket.sum();
+        }
+        return samples;
+    }
+
+    public long lockHoldMeanNanos() {
+        long samples = lockHoldSamples();
+        return (samples == 0) ? 0 : holdTotalNanos.sum() / samples;
+    }
+
+    /**
+     * @param quantile Between 0 and 1, e.g. 0.99
+     * @return The upper bound of the histogram bucket holding that quantile, so at most twice the real value
+     */
+    public long lockHoldQuantileNanos(double quantile) {
+        long[] counts = new long[HOLD_BUCKETS];
+        long samples = 0;
+        for (int i = 0; i < HOLD_BUCKETS; i++) {
+            counts[i] = holdBuckets[i].sum();
+            samples += counts[i];
+        }
+        if (samples == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * samples);
+        long seen = 0;
+        for (int i = 0; i < HOLD_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return 1L << i;
+            }
+        }
+        return 1L << (HOLD_BUCKETS - 1);
+    }
+
+    public void reset() {
+        for (LongAdder counter : global) {
+            counter.reset();
+        }
+        for (LongAdder[] counters : perMod) {
+            if (counters != null) {
+                for (LongAdder counter : counters) {
+                    counter.reset();
+                }
+            }
+        }
+        for (LongAdder bucket : holdBuckets) {
+            bucket.reset();
+        }
+        holdTotalNanos.reset();
+    }
+
+    /**
+     * Renders every counter as one {@code name{labels} value} line, in the plain text format metric scrapers read.
+     */
+    public List<String> render() {
+        List<String> lines = new ArrayList<>();
+        for (FlightMetric metric : METRICS) {
+            String name = "flightapi_" + metric.key() + "_total";
+            lines.add(name + " " + get(metric));
+
+            LongAdder[][] current = perMod;
+            for (int handle = 0; handle < current.length; handle++) {
+                if (current[handle] != null) {
+                    lines.add(name + "{mod=\"" + mods.name(handle) + "\"} " + current[handle][metric.ordinal()].sum());
+                }
+            }
+        }
+
+        long cumulative = 0;
+        for (int i = 0; i < HOLD_BUCKETS - 1; i++) {
+            cumulative += holdBuckets[i].sum();
+            lines.add("flightapi_lock_hold_nanos_bucket{le=\"" + (1L << i) + "\"} " + cumulative);
+        }
+        cumulative += holdBuckets[HOLD_BUCKETS - 1].sum();
+        lines.add("flightapi_lock_hold_nanos_bucket{le=\"+Inf\"} " + cumulative);
+        lines.add("flightapi_lock_hold_nanos_sum " + holdTotalNanos.sum());
+        lines.add("flightapi_lock_hold_nanos_count " + cumulative);
+        return lines;
+    }
+
+    private LongAdder[] countersOf(int modHandle) {
+        LongAdder[][] current = perMod;
+        if (modHandle < current.length && current[modHandle] != null) {
+            return current[modHandle];
+        }
+
+        synchronized (this) {
+            current = perMod;
+            if (modHandle < current.length && current[modHandle] != null) {
+                return current[modHandle];
+            }
+
+            // Copied even when it fits, so readers never see a row stored into an array they already hold
+            LongAdder[][] updated = Arrays.copyOf(current, Math.max(current.length, modHandle + 1));
+            updated[modHandle] = newCounters();
+            perMod = updated;
+            return updated[modHandle];
+        }
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[METRICS.length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,203 @@
+package dev.denismasterherobrine.flightapi.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes {@link FlightMetrics} outside the game: always as a JMX MXBean, and as a plain text file if the server was
+ * started with {@code -Dflightapi.metrics.export=true}. The file is rewritten on a background thread every few
+ * seconds; counters are read without locks, so the tick only counts down to the next export.
+ */
+public final class FlightMetricsExporter implements FlightMetricsMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI/Metrics");
+    private static final String OBJECT_NAME = "dev.denismasterherobrine.flightapi:type=Metrics";
+    private static final int EXPORT_INTERVAL_TICKS = 200;
+
+    private final FlightManager manager;
+    private final FlightMetrics metrics;
+    private final Path exportFile;
+    private final ExecutorService writer;
+
+    private ObjectName objectName;
+    private int ticksUntilExport = EXPORT_INTERVAL_TICKS;
+
+    /**
+     * @param exportFile Where the text export goes, or null to only register the MXBean
+     */
+    public FlightMetricsExporter(FlightManager manager, Path exportFile) {
+        this.manager = manager;
+        this.metrics = manager.getMetrics();
+        this.exportFile = exportFile;
+        this.writer = (exportFile == null) ? null : Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "FlightAPI-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static boolean isExportEnabled() {
+        return Boolean.getBoolean("flightapi.metrics.export");
+    }
+
+    public void start() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            LOGGER.warn("[FlightAPI] Failed to register the metrics MXBean", e);
+        }
+    }
+
+    // Runs on the server thread at the end of every tick
+    public void tick() {
+        if (writer == null || --ticksUntilExport > 0) {
+            return;
+        }
+
+        ticksUntilExport = EXPORT_INTERVAL_TICKS;
+        writer.execute(this::export);
+    }
+
+    public void stop() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.warn("[FlightAPI] Failed to unregister the metrics MXBean", e);
+            }
+            objectName = null;
+        }
+
+        if (writer != null) {
+            writer.execute(this::export);
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void export() {
+        List<String> lines = metrics.render();
+        lines.add("flightapi_tracked_players " + manager.trackedPlayerCount());
+        lines.add("flightapi_owned_players " + manager.ownedPlayerCount());
+        lines.add("flightapi_queued_requests " + manager.queuedRequestCount());
+        lines.add("flightapi_ability_packets_sent_total " + manager.getAbilitySync().packetsSent());
+        lines.add("flightapi_sync_payloads_sent_total " + manager.getAbilitySync().payloadsSent());
+        lines.add("flightapi_ability_packets_suppressed_total " + manager.getAbilitySync().packetsSuppressed());
+        lines.add("flightapi_ability_updates_skipped_total " + manager.getAbilitySync().skippedAlwaysFlying());
+
+        try {
+            Files.createDirectories(exportFile.getParent());
+            Path temp = exportFile.resolveSibling(exportFile.getFileName() + ".tmp");
+            try (BufferedWriter out = Files.newBufferedWriter(temp)) {
+                for (String line : lines) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+            Files.move(temp, exportFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("[FlightAPI] Failed to export flight metrics to {}", exportFile, e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        FlightModRegistry mods = manager.getModRegistry();
+        Map<String, Long> counters = new LinkedHashMap<>();
+
+        for (FlightMetric metric : FlightMetric.values()) {
+            counters.put(metric.key(), metrics.get(metric));
+            for (int handle = 0; mods.isRegistered(handle); handle++) {
+                long count = metrics.get(metric, handle);
+                if (count != 0) {
+                    counters.put(metric.key() + "." + mods.name(handle), count);
+                }
+            }
+        }
+        return counters;
+    }
+
+    @Override
+    public long getLockHoldSamples() {
+        return metrics.lockHoldSamples();
+    }
+
+    @Override
+    public long getLockHoldMeanNanos() {
+        return metrics.lockHoldMeanNanos();
+    }
+
+    @Override
+    public long getLockHoldP99Nanos() {
+        return metrics.lockHoldQuantileNanos(0.99);
+    }
+
+    @Override
+    public boolean isLockTiming() {
+        return metrics.isLockTiming();
+    }
+
+    @Override
+    public void setLockTiming(boolean lockTiming) {
+        metrics.setLockTiming(lockTiming);
+    }
+
+    @Override
+    public int getTrackedPlayers() {
+        return manager.trackedPlayerCount();
+    }
+
+    @Override
+    public int getOwnedPlayers() {
+        return manager.ownedPlayerCount();
+    }
+
+    @Override
+    public int getQueuedRequests() {
+        return manager.queuedRequestCount();
+    }
+
+    @Override
+    public long getAbilityPacketsSent() {
+        return manager.getAbilitySync().packetsSent();
+    }
+
+    @Override
+    public long getAbilityPacketsSuppressed() {
+        return manager.getAbilitySync().packetsSuppressed();
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package dev.denismasterherobrine.flightapi.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link FlightMetrics} and the live gauges, registered as {@code dev.denismasterherobrine.flightapi:type=Metrics}.
+ */
+public interface FlightMetricsMXBean {
+    /**
+     * @return Global counters by {@link FlightMetric#key()}, and per-mod ones as {@code key.modId}
+     */
+    Map<String, Long> getCounters();
+
+    long getLockHoldSamples();
+
+    long getLockHoldMeanNanos();
+
+    long getLockHoldP99Nanos();
+
+    boolean isLockTiming();
+
+    void setLockTiming(boolean lockTiming);
+
+    int getTrackedPlayers();
+
+    int getOwnedPlayers();
+
+    int getQueuedRequests();
+
+    long getAbilityPacketsSent();
+
+    long getAbilityPacketsSuppressed();
+
+    void reset();
+}
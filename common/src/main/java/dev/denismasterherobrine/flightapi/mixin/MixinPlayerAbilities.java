@@ -1,23 +1,24 @@
 package dev.denismasterherobrine.flightapi.mixin;
 
-import dev.denismasterherobrine.flightapi.manager.FlightManager;
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightEngines;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
 import dev.denismasterherobrine.flightapi.manager.IFlightPlayerAbilities;
+import dev.denismasterherobrine.flightapi.trace.FlightTraceEvent;
 import net.minecraft.entity.player.PlayerAbilities;
 import net.minecraft.entity.player.PlayerEntity;
 import org.objectweb.asm.Opcodes;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
 
+import java.util.UUID;
+
 @Mixin(PlayerAbilities.class)
 public abstract class MixinPlayerAbilities implements IFlightPlayerAbilities {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI/MixinPlayerAbilities");
-
     @Shadow public boolean flying;
     @Shadow public boolean allowFlying;
 
@@ -44,19 +45,20 @@ public abstract class MixinPlayerAbilities implements IFlightPlayerAbilities {
     )
     private void flightapi$redirectFlyingSet(PlayerAbilities instance, boolean newValue) {
         PlayerEntity owner = this.getFlightOwner();
-        if (owner == null) {
+        // Writes that change nothing don't need the manager. creativeMode can't be used here, readNbt sets it after flying
+        if (owner == null || newValue == this.flying) {
             this.flying = newValue;
-            LOGGER.debug("[MixinPlayerAbilities] No owner found, setting flying={} as Vanilla", newValue);
             return;
         }
 
-        String currentOwner = FlightManager.getInstance().getCurrentOwner(owner.getGameProfile().getId()).orElse(null);
+        UUID playerUuid = owner.getGameProfile().getId();
+        FlightEngine engine = FlightEngines.current();
+        int currentOwner = engine.owner(playerUuid);
 
-        if (currentOwner == null) {
+        if (currentOwner == FlightModRegistry.NONE) {
             this.flying = newValue;
-            LOGGER.debug("[MixinPlayerAbilities] No FlightAPI owner, letting NBT set flying={}", newValue);
         } else {
-            LOGGER.debug("[MixinPlayerAbilities] Flight is owned by {}, ignoring NBT flying={}", currentOwner, newValue);
+            FlightEngines.services().getTrace().record(FlightTraceEvent.NBT_FLYING_IGNORED, playerUuid, currentOwner, FlightModRegistry.NONE);
         }
     }
 
@@ -71,21 +73,19 @@ public abstract class MixinPlayerAbilities implements IFlightPlayerAbilities {
 
     private void flightapi$redirectAllowFlyingSet(PlayerAbilities instance, boolean newValue) {
         PlayerEntity owner = this.getFlightOwner();
-
-        if (owner == null) {
+        if (owner == null || newValue == this.allowFlying) {
             this.allowFlying = newValue;
-            LOGGER.debug("[MixinPlayerAbilities] No owner found, setting allowFlying={} as Vanilla", newValue);
             return;
         }
 
-        String currentOwner = FlightManager.getInstance().getCurrentOwner(owner.getGameProfile().getId()).orElse(null);
+        UUID playerUuid = owner.getGameProfile().getId();
+        FlightEngine engine = FlightEngines.current();
+        int currentOwner = engine.owner(playerUuid);
 
-        if (currentOwner == null) {
+        if (currentOwner == FlightModRegistry.NONE) {
             this.allowFlying = newValue;
-            LOGGER.debug("[MixinPlayerAbilities] No FlightApi owner, letting NBT set allowFlying={}", newValue);
         } else {
-            LOGGER.debug("[MixinPlayerAbilities] Flight owned by {}, ignoring NBT allowFlying={}", currentOwner, newValue);
+            FlightEngines.services().getTrace().record(FlightTraceEvent.NBT_ALLOW_FLYING_IGNORED, playerUuid, currentOwner, FlightModRegistry.NONE);
         }
     }
 }
-
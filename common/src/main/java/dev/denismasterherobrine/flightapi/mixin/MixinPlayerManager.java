@@ -0,0 +1,22 @@
+package dev.denismasterherobrine.flightapi.mixin;
+
+import dev.denismasterherobrine.flightapi.lifecycle.FlightLifecycle;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.server.PlayerManager;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Optional;
+
+@Mixin(PlayerManager.class)
+public abstract class MixinPlayerManager {
+
+    // Before vanilla reads the player's NBT, so the abilities redirects already see the restored owner
+    @Inject(method = "loadPlayerData", at = @At("HEAD"))
+    private void flightapi$onLoadPlayerData(ServerPlayerEntity player, CallbackInfoReturnable<Optional<NbtCompound>> cir) {
+        FlightLifecycle.onPlayerDataLoad(player);
+    }
+}
@@ -0,0 +1,20 @@
+package dev.denismasterherobrine.flightapi.mixin;
+
+import dev.denismasterherobrine.flightapi.lifecycle.FlightLifecycle;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.GameMode;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(ServerPlayerEntity.class)
+public abstract class MixinServerPlayerEntity {
+
+    @Inject(method = "changeGameMode", at = @At("RETURN"))
+    private void flightapi$onChangeGameMode(GameMode gameMode, CallbackInfoReturnable<Boolean> cir) {
+        if (cir.getReturnValue()) {
+            FlightLifecycle.onGameModeChange((ServerPlayerEntity) (Object) this);
+        }
+    }
+}
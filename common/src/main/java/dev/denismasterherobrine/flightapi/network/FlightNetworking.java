@@ -0,0 +1,37 @@
+package dev.denismasterherobrine.flightapi.network;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * Loader-independent access to the flight sync channel. Each platform installs its {@link Channel} on startup;
+ * until then, and for clients without FlightAPI, callers fall back to the vanilla abilities packet.
+ */
+public final class FlightNetworking {
+    private static volatile Channel channel;
+
+    private FlightNetworking() {}
+
+    public interface Channel {
+        // True if the player's client registered the flight sync payload
+        boolean canSend(ServerPlayerEntity player);
+
+        void send(ServerPlayerEntity player, FlightSyncPayload payload);
+    }
+
+    public static void setChannel(Channel channel) {
+        FlightNetworking.channel = channel;
+    }
+
+    /**
+     * @return false if the player can't receive the payload and needs the vanilla packet instead
+     */
+    public static boolean trySend(ServerPlayerEntity player, FlightSyncPayload payload) {
+        Channel current = channel;
+        if (current == null || !current.canSend(player)) {
+            return false;
+        }
+
+        current.send(player, payload);
+        return true;
+    }
+}
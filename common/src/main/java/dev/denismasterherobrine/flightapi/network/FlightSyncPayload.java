@@ -0,0 +1,41 @@
+package dev.denismasterherobrine.flightapi.network;
+
+import dev.denismasterherobrine.flightapi.FlightMain;
+
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Compact flight update sent instead of the vanilla abilities packet to clients that have FlightAPI installed.
+ * Two varints and a flag byte; the client applies it only if its sequence is newer than the last one it applied.
+ * @param sequence Increases with every update the server sends
+ * @param ownerHandle The owning mod's handle on the server, or -1
+ */
+public record FlightSyncPayload(int sequence, int ownerHandle, boolean allowFlying, boolean flying) implements CustomPayload {
+    public static final CustomPayload.Id<FlightSyncPayload> ID = new CustomPayload.Id<>(Identifier.of(FlightMain.MOD_ID, "flight_sync"));
+    public static final PacketCodec<PacketByteBuf, FlightSyncPayload> CODEC = PacketCodec.of(FlightSyncPayload::write, FlightSyncPayload::read);
+
+    private static final int ALLOW_FLYING = 1;
+    private static final int FLYING = 2;
+
+    private static FlightSyncPayload read(PacketByteBuf buf) {
+        int sequence = buf.readVarInt();
+        // Shifted so that -1 (no owner) still encodes as a single byte
+        int ownerHandle = buf.readVarInt() - 1;
+        byte flags = buf.readByte();
+        return new FlightSyncPayload(sequence, ownerHandle, (flags & ALLOW_FLYING) != 0, (flags & FLYING) != 0);
+    }
+
+    private void write(PacketByteBuf buf) {
+        buf.writeVarInt(sequence);
+        buf.writeVarInt(ownerHandle + 1);
+        buf.writeByte((allowFlying ? ALLOW_FLYING : 0) | (flying ? FLYING : 0));
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
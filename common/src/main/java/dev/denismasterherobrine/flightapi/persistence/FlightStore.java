@@ -0,0 +1,207 @@
+package dev.denismasterherobrine.flightapi.persistence;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightServices;
+import dev.denismasterherobrine.flightapi.manager.PlayerFlightSnapshot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists per-player flight ownership in the world folder, one small binary file per player.
+ * Only players that changed since the last save are written. Snapshots are taken on the server thread and written in
+ * batches on a background thread, so saving never blocks the tick. Files are read lazily when a player joins.
+ * A player who rejoins before their last write finished is restored from that pending write instead of the stale file.
+ */
+public final class FlightStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger("FlightAPI/Store");
+
+    // Per request: modId, priority and remaining lease ticks
+    private static final int FORMAT_VERSION = 1;
+    private static final int SAVE_INTERVAL_TICKS = 100;
+
+    private final FlightEngine engine;
+    private final FlightServices services;
+    private final Path directory;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "FlightAPI-Store");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Latest snapshot per player that was handed to the writer but is not on disk yet
+    private final ConcurrentMap<UUID, Entry> pending = new ConcurrentHashMap<>();
+
+    private int ticksUntilSave = SAVE_INTERVAL_TICKS;
+
+    public FlightStore(FlightEngine engine, FlightServices services, Path directory) {
+        this.engine = engine;
+        this.services = services;
+        this.directory = directory;
+    }
+
+    // Runs on the server thread at the end of every tick
+    public void tick() {
+        if (--ticksUntilSave > 0) {
+            return;
+        }
+
+        ticksUntilSave = SAVE_INTERVAL_TICKS;
+        saveDirty();
+    }
+
+    // Runs on the server thread like eviction, so nobody is evicted between being drained and captured
+    public void saveDirty() {
+        List<Entry> batch = new ArrayList<>();
+        services.drainDirty(playerUuid -> {
+            Entry entry = capture(playerUuid);
+            if (entry != null) {
+                batch.add(entry);
+            }
+        });
+
+        if (!batch.isEmpty()) {
+            writer.execute(() -> batch.forEach(this::write));
+        }
+    }
+
+    // Saves the last state of a leaving player, handed over by FlightEngine.evict under the player's lock
+    public void saveEvicted(PlayerFlightSnapshot snapshot) {
+        Entry entry = new Entry(snapshot.player(), snapshot);
+        pending.put(entry.playerUuid, entry);
+        writer.execute(() -> write(entry));
+    }
+
+    public void loadPlayer(UUID playerUuid) {
+        Entry unwritten = pending.get(playerUuid);
+        if (unwritten != null) {
+            if (unwritten.snapshot != null && !unwritten.snapshot.isEmpty()) {
+                engine.restore(unwritten.snapshot);
+            }
+            return;
+        }
+
+        Path file = fileOf(playerUuid);
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                LOGGER.warn("[FlightAPI] Unsupported flight data version {} for {}, ignoring it", version, playerUuid);
+                return;
+            }
+            PlayerFlightSnapshot.Request owner = in.readBoolean() ? readRequest(in) : null;
+            int queueSize = in.readUnsignedShort();
+            List<PlayerFlightSnapshot.Request> queue = new ArrayList<>(queueSize);
+            for (int i = 0; i < queueSize; i++) {
+                queue.add(readRequest(in));
+            }
+
+            engine.restore(new PlayerFlightSnapshot(playerUuid, owner, List.copyOf(queue)));
+        } catch (IOException e) {
+            LOGGER.warn("[FlightAPI] Failed to load flight data for {}", playerUuid, e);
+        }
+    }
+
+    // Writes everything still pending and waits for it, the server is going away
+    public void close() {
+        saveDirty();
+        writer.shutdown();
+
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.warn("[FlightAPI] Timed out waiting for flight data to be saved");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return null if there is nothing to write: a player without state was evicted, and eviction already handed over
+     * their last state, so their file must stay. Only a purge deletes it.
+     */
+    private Entry capture(UUID playerUuid) {
+        boolean purged = services.clearPurged(playerUuid);
+        PlayerFlightSnapshot snapshot = engine.snapshot(playerUuid);
+        if (snapshot == null && !purged) {
+            return null;
+        }
+
+        Entry entry = new Entry(playerUuid, snapshot);
+        pending.put(playerUuid, entry);
+        return entry;
+    }
+
+    private void write(Entry entry) {
+        try {
+            writeFile(entry);
+        } finally {
+            // A newer snapshot queued in the meantime stays pending until its own write
+            pending.remove(entry.playerUuid, entry);
+        }
+    }
+
+    private void writeFile(Entry entry) {
+        Path file = fileOf(entry.playerUuid);
+        PlayerFlightSnapshot snapshot = entry.snapshot;
+
+        try {
+            if (snapshot == null || snapshot.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+
+            Files.createDirectories(directory);
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeByte(FORMAT_VERSION);
+                out.writeBoolean(snapshot.owner() != null);
+                if (snapshot.owner() != null) {
+                    writeRequest(out, snapshot.owner());
+                }
+                out.writeShort(snapshot.queue().size());
+                for (PlayerFlightSnapshot.Request request : snapshot.queue()) {
+                    writeRequest(out, request);
+                }
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("[FlightAPI] Failed to save flight data for {}", entry.playerUuid, e);
+        }
+    }
+
+    private static PlayerFlightSnapshot.Request readRequest(DataInputStream in) throws IOException {
+        return new PlayerFlightSnapshot.Request(in.readUTF(), in.readInt(), in.readInt());
+    }
+
+    private static void writeRequest(DataOutputStream out, PlayerFlightSnapshot.Request request) throws IOException {
+        out.writeUTF(request.modId());
+        out.writeInt(request.priority());
+        out.writeInt(request.leaseTicks());
+    }
+
+    private Path fileOf(UUID playerUuid) {
+        return directory.resolve(playerUuid + ".dat");
+    }
+
+    // A null snapshot means the player was purged and their file should be removed
+    private record Entry(UUID playerUuid, PlayerFlightSnapshot snapshot) {}
+}
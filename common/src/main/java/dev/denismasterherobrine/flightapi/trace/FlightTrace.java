@@ -0,0 +1,136 @@
+package dev.denismasterherobrine.flightapi.trace;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+
+/**
+ * Fixed-size ring buffer of flight events, replacing per-request log lines.
+ * Recording writes a few primitives into preallocated arrays and never allocates or touches I/O; old events are
+ * overwritten. A player/mod filter narrows what gets recorded, and {@link #dump()} renders the buffer on demand.
+ */
+public final class FlightTrace {
+    private static final int CAPACITY = 4096;
+    private static final int MASK = CAPACITY - 1;
+    private static final FlightTraceEvent[] EVENTS = FlightTraceEvent.values();
+
+    private final FlightModRegistry mods;
+    private final AtomicLong cursor = new AtomicLong();
+
+    // Sequence number + 1 of the event in each slot, written last so readers can detect torn or overwritten slots
+    private final AtomicLongArray stamps = new AtomicLongArray(CAPACITY);
+    private final long[] times = new long[CAPACITY];
+    private final long[] playerMost = new long[CAPACITY];
+    private final long[] playerLeast = new long[CAPACITY];
+    private final int[] modHandles = new int[CAPACITY];
+    private final int[] otherHandles = new int[CAPACITY];
+    private final byte[] events = new byte[CAPACITY];
+
+    private volatile boolean enabled = true;
+    private volatile UUID playerFilter;
+    private volatile int modFilter = FlightModRegistry.NONE;
+
+    public FlightTrace(FlightModRegistry mods) {
+        this.mods = mods;
+    }
+
+    /**
+     * @param player The affected player
+     * @param mod The mod the event is about
+     * @param other A second mod involved, e.g. the current owner for {@link FlightTraceEvent#QUEUED}, or -1
+     */
+    public void record(FlightTraceEvent event, UUID player, int mod, int other) {
+        if (!enabled) {
+            return;
+        }
+
+        UUID onlyPlayer = playerFilter;
+        if (onlyPlayer != null && !onlyPlayer.equals(player)) {
+            return;
+        }
+
+        int onlyMod = modFilter;
+        if (onlyMod != FlightModRegistry.NONE && onlyMod != mod && onlyMod != other) {
+            return;
+        }
+
+        long sequence = cursor.getAndIncrement();
+        int slot = (int) (sequence & MASK);
+
+        stamps.setRelease(slot, 0);
+        times[slot] = System.currentTimeMillis();
+        playerMost[slot] = player.getMostSignificantBits();
+        playerLeast[slot] = player.getLeastSignificantBits();
+        modHandles[slot] = mod;
+        otherHandles[slot] = other;
+        events[slot] = (byte) event.ordinal();
+        stamps.setRelease(slot, sequence + 1);
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Only record events for this player, or for everyone if null
+    public void filterPlayer(UUID player) {
+        this.playerFilter = player;
+    }
+
+    // Only record events involving this mod, or for every mod if -1
+    public void filterMod(int modHandle) {
+        this.modFilter = modHandle;
+    }
+
+    public void clear() {
+        for (int i = 0; i < CAPACITY; i++) {
+            stamps.set(i, 0);
+        }
+    }
+
+    /**
+     * @return The buffered events, oldest first, rendered as one line each.
+     */
+    public List<String> dump() {
+        long end = cursor.get();
+        long start = Math.max(0, end - CAPACITY);
+        List<String> lines = new ArrayList<>((int) (end - start));
+
+        for (long sequence = start; sequence < end; sequence++) {
+            int slot = (int) (sequence & MASK);
+            if (stamps.getAcquire(slot) != sequence + 1) {
+                continue;
+            }
+
+            long time = times[slot];
+            UUID player = new UUID(playerMost[slot], playerLeast[slot]);
+            int mod = modHandles[slot];
+            int other = otherHandles[slot];
+            FlightTraceEvent event = EVENTS[events[slot]];
+
+            // Overwritten while we were reading it
+            if (stamps.getAcquire(slot) != sequence + 1) {
+                continue;
+            }
+
+            StringBuilder line = new StringBuilder(96)
+                    .append(Instant.ofEpochMilli(time)).append(' ')
+                    .append(event).append(' ')
+                    .append(player).append(" mod=").append(mods.name(mod));
+            if (other != FlightModRegistry.NONE) {
+                line.append(" other=").append(mods.name(other));
+            }
+            lines.add(line.toString());
+        }
+
+        return lines;
+    }
+}
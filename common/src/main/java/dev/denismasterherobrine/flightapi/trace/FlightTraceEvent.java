@@ -0,0 +1,17 @@
+package dev.denismasterherobrine.flightapi.trace;
+
+public enum FlightTraceEvent {
+    ALREADY_OWNER,
+    GRANTED,
+    QUEUED,
+    PREEMPTED,
+    RELEASED,
+    HANDOFF,
+    CANCELLED,
+    PURGED,
+    LEASE_EXPIRED,
+    ZONE_SUSPENDED,
+    ZONE_RESUMED,
+    NBT_FLYING_IGNORED,
+    NBT_ALLOW_FLYING_IGNORED
+}
@@ -0,0 +1,29 @@
+package dev.denismasterherobrine.flightapi.zone;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.world.World;
+
+/**
+ * A no-flight area of one dimension, either the whole dimension or a rectangle of chunks.
+ * Chunk bounds are inclusive; zones are evaluated per chunk, so block bounds are widened to whole chunks.
+ */
+public record FlightZone(String id, RegistryKey<World> dimension, boolean wholeDimension,
+                         int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+
+    public static FlightZone dimension(String id, RegistryKey<World> dimension) {
+        return new FlightZone(id, dimension, true, 0, 0, 0, 0);
+    }
+
+    public static FlightZone blocks(String id, RegistryKey<World> dimension, int x1, int z1, int x2, int z2) {
+        return new FlightZone(id, dimension, false,
+                Math.min(x1, x2) >> 4, Math.min(z1, z2) >> 4, Math.max(x1, x2) >> 4, Math.max(z1, z2) >> 4);
+    }
+
+    public boolean contains(int chunkX, int chunkZ) {
+        return wholeDimension || (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ);
+    }
+
+    long chunkCount() {
+        return (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+    }
+}
@@ -0,0 +1,193 @@
+package dev.denismasterherobrine.flightapi.zone;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightModRegistry;
+import dev.denismasterherobrine.flightapi.trace.FlightTrace;
+import dev.denismasterherobrine.flightapi.trace.FlightTraceEvent;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Suspends owned flight while a player is inside a no-flight zone and restores it once they leave.
+ * Zones are indexed per dimension by chunk, and each player's position is only evaluated when they cross into another
+ * chunk or dimension, so the per-tick cost is one comparison per online player instead of per-mod position checks.
+ * Ownership and queues are untouched: the policy only reads owners from the {@link FlightEngine} and asks the caller
+ * to resync abilities, which are held back while {@link #isSuspended} is true.
+ */
+public final class FlightZonePolicy {
+    // Zones covering more chunks than this are checked by bounds on each crossing instead of being indexed
+    private static final long MAX_INDEXED_CHUNKS = 4096;
+
+    private final FlightTrace trace;
+
+    // Players whose owned flight is held back by a no-flight zone
+    private final Set<UUID> suspended = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this; the index is rebuilt from it and published on every change
+    private final Map<String, FlightZone> zones = new LinkedHashMap<>();
+    private volatile Map<RegistryKey<World>, DimensionIndex> index = Map.of();
+    private volatile int version;
+
+    // Server thread only
+    private final Map<UUID, Position> positions = new HashMap<>();
+    private int seenVersion;
+
+    public FlightZonePolicy(FlightTrace trace) {
+        this.trace = trace;
+    }
+
+    /**
+     * Adds the zone, replacing an existing one with the same id. Takes effect on the next tick.
+     */
+    public synchronized void register(FlightZone zone) {
+        zones.put(zone.id(), zone);
+        rebuild();
+    }
+
+    public synchronized boolean remove(String id) {
+        if (zones.remove(id) == null) {
+            return false;
+        }
+
+        rebuild();
+        return true;
+    }
+
+    public synchronized List<FlightZone> zones() {
+        return List.copyOf(zones.values());
+    }
+
+    public boolean bans(RegistryKey<World> dimension, long chunk) {
+        DimensionIndex dimensionIndex = index.get(dimension);
+        return dimensionIndex != null && dimensionIndex.bans(chunk);
+    }
+
+    public boolean isSuspended(UUID playerUuid) {
+        return suspended.contains(playerUuid);
+    }
+
+    /**
+     * Runs on the server thread once per tick, before abilities are flushed.
+     * @param resync Applies the player's abilities again, called for owned players whose suspension changed
+     */
+    public void tick(MinecraftServer server, FlightEngine engine, Consumer<ServerPlayerEntity> resync) {
+        Map<RegistryKey<World>, DimensionIndex> current = index;
+        int currentVersion = version;
+        boolean reevaluate = currentVersion != seenVersion;
+
+        // Nothing registered and nothing changed since every player was last evaluated
+        if (current.isEmpty() && !reevaluate) {
+            return;
+        }
+        seenVersion = currentVersion;
+
+        for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+            UUID playerUuid = player.getGameProfile().getId();
+            RegistryKey<World> dimension = player.getWorld().getRegistryKey();
+            long chunk = player.getChunkPos().toLong();
+
+            Position position = positions.get(playerUuid);
+            if (position == null) {
+                position = new Position();
+                positions.put(playerUuid, position);
+            } else if (!reevaluate && position.dimension == dimension && position.chunk == chunk) {
+                continue;
+            }
+            position.dimension = dimension;
+            position.chunk = chunk;
+
+            DimensionIndex dimensionIndex = current.get(dimension);
+            boolean banned = dimensionIndex != null && dimensionIndex.bans(chunk);
+            if (banned != position.banned) {
+                position.banned = banned;
+                boolean changed = banned ? suspended.add(playerUuid) : suspended.remove(playerUuid);
+                int owner = engine.owner(playerUuid);
+                if (changed && owner != FlightModRegistry.NONE) {
+                    trace.record(banned ? FlightTraceEvent.ZONE_SUSPENDED : FlightTraceEvent.ZONE_RESUMED,
+                            playerUuid, owner, FlightModRegistry.NONE);
+                    resync.accept(player);
+                }
+            }
+        }
+    }
+
+    // Server thread only, e.g. on logout; the player is evaluated again when they join
+    public void forget(UUID playerUuid) {
+        positions.remove(playerUuid);
+        suspended.remove(playerUuid);
+    }
+
+    public void clearTracking() {
+        positions.clear();
+        suspended.clear();
+        seenVersion = version - 1;
+    }
+
+    private void rebuild() {
+        Map<RegistryKey<World>, DimensionIndex> rebuilt = new HashMap<>();
+        for (FlightZone zone : zones.values()) {
+            rebuilt.computeIfAbsent(zone.dimension(), dimension -> new DimensionIndex()).add(zone);
+        }
+        for (DimensionIndex dimensionIndex : rebuilt.values()) {
+            dimensionIndex.chunks.trim();
+        }
+
+        index = Map.copyOf(rebuilt);
+        version++;
+    }
+
+    private static final class DimensionIndex {
+        boolean wholeDimension;
+        final LongOpenHashSet chunks = new LongOpenHashSet();
+        final List<FlightZone> large = new ArrayList<>();
+
+        void add(FlightZone zone) {
+            if (zone.wholeDimension()) {
+                wholeDimension = true;
+            } else if (zone.chunkCount() > MAX_INDEXED_CHUNKS) {
+                large.add(zone);
+            } else {
+                for (int x = zone.minChunkX(); x <= zone.maxChunkX(); x++) {
+                    for (int z = zone.minChunkZ(); z <= zone.maxChunkZ(); z++) {
+                        chunks.add(ChunkPos.toLong(x, z));
+                    }
+                }
+            }
+        }
+
+        boolean bans(long chunk) {
+            if (wholeDimension || chunks.contains(chunk)) {
+                return true;
+            }
+
+            for (FlightZone zone : large) {
+                if (zone.contains(ChunkPos.getPackedX(chunk), ChunkPos.getPackedZ(chunk))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Position {
+        RegistryKey<World> dimension;
+        long chunk;
+        boolean banned;
+    }
+}
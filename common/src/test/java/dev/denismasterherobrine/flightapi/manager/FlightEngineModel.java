@@ -0,0 +1,254 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sequential reference for one player's ownership state: what a {@link FlightEngine} must behave like when its
+ * operations on that player run one after another. Deliberately naive, a sorted list and a plain array instead of
+ * a heap and a timer wheel, so it is easy to check by reading.
+ */
+final class FlightEngineModel {
+    private boolean tracked;
+    private int owner = FlightModRegistry.NONE;
+    private int ownerPriority;
+
+    // Handoff order: higher priority first, then lower sequence
+    private final List<long[]> queue = new ArrayList<>();
+    private long nextTail;
+    private long nextHead = -1;
+
+    // Lease deadline per mod handle, 0 if not leased
+    private long[] leases;
+    private long now;
+
+    FlightEngineModel(int mods) {
+        leases = new long[mods];
+    }
+
+    FlightEngineModel copy() {
+        FlightEngineModel copy = new FlightEngineModel(leases.length);
+        copy.tracked = tracked;
+        copy.owner = owner;
+        copy.ownerPriority = ownerPriority;
+        for (long[] entry : queue) {
+            copy.queue.add(entry.clone());
+        }
+        copy.nextTail = nextTail;
+        copy.nextHead = nextHead;
+        copy.leases = leases.clone();
+        copy.now = now;
+        return copy;
+    }
+
+    boolean request(int mod, int priority, boolean preempt, int leaseTicks) {
+        tracked = true;
+        boolean keepPriority = priority == FlightEngine.KEEP_PRIORITY;
+        if (keepPriority) {
+            priority = FlightEngine.DEFAULT_PRIORITY;
+        }
+
+        boolean owns;
+        if (owner == mod) {
+            if (!keepPriority) {
+                ownerPriority = priority;
+            }
+            owns = true;
+        } else if (owner == FlightModRegistry.NONE) {
+            owner = mod;
+            ownerPriority = priority;
+            owns = true;
+        } else if (preempt && priority > ownerPriority) {
+            remove(mod);
+            insert(owner, ownerPriority, nextHead--);
+            owner = mod;
+            ownerPriority = priority;
+            owns = true;
+        } else {
+            int index = indexOf(mod);
+            if (index < 0) {
+                insert(mod, priority, nextTail++);
+            } else if (!keepPriority) {
+                long[] entry = queue.remove(index);
+                insert(mod, priority, entry[2]);
+            }
+            owns = false;
+        }
+
+        if (leaseTicks > 0) {
+            leases[mod] = now + leaseTicks;
+        }
+        return owns;
+    }
+
+    boolean release(int mod) {
+        if (owner != mod) {
+            return false;
+        }
+
+        leases[mod] = 0;
+        if (queue.isEmpty()) {
+            owner = FlightModRegistry.NONE;
+            ownerPriority = 0;
+        } else {
+            long[] next = queue.remove(0);
+            owner = (int) next[0];
+            ownerPriority = (int) next[1];
+        }
+        return true;
+    }
+
+    boolean cancel(int mod) {
+        if (!remove(mod)) {
+            return false;
+        }
+
+        leases[mod] = 0;
+        return true;
+    }
+
+    boolean renew(int mod, int ticks) {
+        if (!holds(mod) || leases[mod] == 0) {
+            return false;
+        }
+
+        leases[mod] = now + ticks;
+        return true;
+    }
+
+    // Evicting and purging look the same from the ownership state's point of view
+    boolean drop() {
+        if (!tracked) {
+            return false;
+        }
+
+        tracked = false;
+        owner = FlightModRegistry.NONE;
+        ownerPriority = 0;
+        queue.clear();
+        nextTail = 0;
+        nextHead = -1;
+        Arrays.fill(leases, 0);
+        return true;
+    }
+
+    // Saving and restoring keeps owner, queue order, priorities and leases, the queue is just renumbered
+    void relog() {
+        if (!tracked) {
+            return;
+        }
+
+        nextTail = 0;
+        nextHead = -1;
+        for (long[] entry : queue) {
+            entry[2] = nextTail++;
+        }
+    }
+
+    // Queued leases that ran out are cancelled, an expired owner hands off to the first request still valid
+    void tick() {
+        now++;
+        queue.removeIf(entry -> expired((int) entry[0]));
+        if (owner != FlightModRegistry.NONE && expired(owner)) {
+            release(owner);
+        }
+        for (int mod = 0; mod < leases.length; mod++) {
+            if (expired(mod)) {
+                leases[mod] = 0;
+            }
+        }
+    }
+
+    int owner() {
+        return owner;
+    }
+
+    // Queued handles in handoff order
+    int[] queued() {
+        int[] handles = new int[queue.size()];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = (int) queue.get(i)[0];
+        }
+        return handles;
+    }
+
+    boolean isTracked() {
+        return tracked;
+    }
+
+    /**
+     * The snapshot an engine must return, with the same shape as {@link FlightEngine#snapshot}, but using handles for
+     * modIds: {@code {handle, priority, leaseTicks}} for the owner first (or nothing), then every queued request.
+     */
+    List<int[]> snapshot() {
+        if (!tracked) {
+            return null;
+        }
+
+        List<int[]> requests = new ArrayList<>();
+        if (owner != FlightModRegistry.NONE) {
+            requests.add(request(owner, ownerPriority));
+        }
+        for (long[] entry : queue) {
+            requests.add(request((int) entry[0], (int) entry[1]));
+        }
+        return requests;
+    }
+
+    // Equal keys behave the same from here on, the checker skips states it already explored
+    String key() {
+        StringBuilder key = new StringBuilder();
+        key.append(tracked).append('|').append(owner).append(':').append(ownerPriority).append('|');
+        for (long[] entry : queue) {
+            key.append(entry[0]).append(':').append(entry[1]).append(':').append(entry[2]).append(',');
+        }
+        key.append('|').append(nextTail).append(':').append(nextHead).append('|').append(Arrays.toString(leases));
+        return key.toString();
+    }
+
+    private int[] request(int mod, int priority) {
+        long deadline = leases[mod];
+        int leaseTicks = (deadline == 0) ? 0 : (int) Math.max(1, deadline - now);
+        return new int[] {mod, priority, leaseTicks};
+    }
+
+    private boolean expired(int mod) {
+        return leases[mod] != 0 && leases[mod] <= now;
+    }
+
+    private boolean holds(int mod) {
+        return owner == mod || indexOf(mod) >= 0;
+    }
+
+    private int indexOf(int mod) {
+        for (int i = 0; i < queue.size(); i++) {
+            if (queue.get(i)[0] == mod) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean remove(int mod) {
+        int index = indexOf(mod);
+        if (index < 0) {
+            return false;
+        }
+
+        queue.remove(index);
+        return true;
+    }
+
+    private void insert(int mod, int priority, long sequence) {
+        int index = 0;
+        while (index < queue.size()) {
+            long[] entry = queue.get(index);
+            if (entry[1] < priority || (entry[1] == priority && entry[2] > sequence)) {
+                break;
+            }
+            index++;
+        }
+        queue.add(index, new long[] {mod, priority, sequence});
+    }
+}
@@ -0,0 +1,347 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CyclicBarrier;
+
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+import dev.denismasterherobrine.flightapi.manager.FlightHistory.Op;
+import dev.denismasterherobrine.flightapi.manager.FlightHistory.Type;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Randomized workloads against both engines, checked against {@link FlightEngineModel}.
+ * Every workload is generated from a seed, and failures report it. Run a single seed again with
+ * {@code ./gradlew :common:test -Dflightapi.test.seed=<seed>}; {@code -Dflightapi.test.rounds} sets how many seeds
+ * each test tries. The scheduled and lease tests replay a seed exactly. The concurrent test replays the same
+ * per-thread operations, but the interleaving is up to the scheduler, so it prints the offending history as well.
+ */
+class FlightEngineStressTest {
+    private static final int MODS = 6;
+    private static final int PLAYERS = 2;
+    private static final int THREADS = 4;
+    private static final int OPS_PER_THREAD = 500;
+
+    private static final Long SEED = Long.getLong("flightapi.test.seed");
+    private static final int ROUNDS = (SEED != null) ? 1 : Integer.getInteger("flightapi.test.rounds", 40);
+    private static final long BASE_SEED = (SEED != null) ? SEED : new Random().nextLong();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"concurrent", "synchronized"})
+    void concurrentHistoriesAreLinearizable(String engineName) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long seed = BASE_SEED + round;
+            Workload workload = new Workload(engineName);
+            List<List<Op>> scripts = scripts(seed);
+
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                List<Op> script = scripts.get(t);
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (Op op : script) {
+                            workload.run(op);
+                        }
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }, "FlightEngineStressTest-" + t);
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            if (!errors.isEmpty()) {
+                fail(failure(engineName, seed, "a worker failed: " + errors.peek()), errors.peek());
+            }
+            workload.verify(seed, scripts);
+        }
+    }
+
+    // Same workloads, interleaved one operation at a time in an order drawn from the seed, so failures replay exactly
+    @ParameterizedTest
+    @ValueSource(strings = {"concurrent", "synchronized"})
+    void scheduledHistoriesMatchTheModel(String engineName) {
+        for (int round = 0; round < ROUNDS; round++) {
+            long seed = BASE_SEED + round;
+            Workload workload = new Workload(engineName);
+            List<List<Op>> scripts = scripts(seed);
+
+            Random scheduler = new Random(seed);
+            int[] next = new int[THREADS];
+            int remaining = THREADS * OPS_PER_THREAD;
+            while (remaining > 0) {
+                int t = scheduler.nextInt(THREADS);
+                if (next[t] < OPS_PER_THREAD) {
+                    workload.run(scripts.get(t).get(next[t]++));
+                    remaining--;
+                }
+            }
+            workload.verify(seed, scripts);
+        }
+    }
+
+    /**
+     * Leases expire on the server thread, so this drives the engine from one thread with ticks and relogs mixed in,
+     * comparing every result with the model as it goes.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"concurrent", "synchronized"})
+    void leasesExpireLikeTheModel(String engineName) {
+        for (int round = 0; round < ROUNDS; round++) {
+            long seed = BASE_SEED + round;
+            Workload workload = new Workload(engineName);
+            FlightEngineModel[] models = new FlightEngineModel[PLAYERS];
+            for (int p = 0; p < PLAYERS; p++) {
+                models[p] = new FlightEngineModel(MODS);
+            }
+
+            Random random = new Random(seed);
+            Deque<Op> recent = new ArrayDeque<>();
+            for (int i = 0; i < THREADS * OPS_PER_THREAD; i++) {
+                int roll = random.nextInt(100);
+                Op op = (roll < 15) ? Op.read(0, Type.TICK, 0)
+                        : (roll < 19) ? Op.read(0, Type.RELOG, random.nextInt(PLAYERS))
+                        : randomOp(0, random, 40);
+                workload.run(op);
+
+                String expected = "";
+                if (op.type == Type.TICK) {
+                    for (FlightEngineModel model : models) {
+                        model.tick();
+                    }
+                } else {
+                    expected = FlightHistory.apply(op, models[op.player]);
+                }
+
+                recent.addLast(op);
+                if (recent.size() > 20) {
+                    recent.removeFirst();
+                }
+                if (!expected.equals(op.result)) {
+                    fail(failure(engineName, seed, "expected " + expected + " for the last operation of\n" + lines(recent)));
+                }
+            }
+            workload.verify(seed, List.of());
+        }
+    }
+
+    /**
+     * Requests from other threads racing a leave either land in the state that the leave evicts or are rejected, so
+     * nothing is left behind for the player. Once a thread saw a rejection, every later request must be rejected too.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"concurrent", "synchronized"})
+    void requestsRacingALeaveLeaveNothingBehind(String engineName) throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            long seed = BASE_SEED + round;
+            Workload workload = new Workload(engineName);
+            UUID player = workload.players[0];
+            workload.services.trackOnlinePlayers();
+            workload.services.playerOnline(player);
+
+            CyclicBarrier start = new CyclicBarrier(THREADS);
+            Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                Random random = new Random(seed * 31 + t);
+                Runnable work = (t == 0) ? () -> {
+                    for (int i = random.nextInt(OPS_PER_THREAD); i > 0; i--) {
+                        Thread.yield();
+                    }
+                    workload.services.playerOffline(player);
+                    workload.engine.evict(player);
+                } : () -> {
+                    boolean rejected = false;
+                    for (int i = 0; i < OPS_PER_THREAD; i++) {
+                        int mod = random.nextInt(MODS);
+                        if (random.nextInt(4) == 0) {
+                            workload.engine.release(mod, player);
+                            continue;
+                        }
+
+                        FlightRequestResult result = workload.engine.request(mod, player, random.nextInt(4), random.nextBoolean(), 0);
+                        if (rejected && result != FlightRequestResult.REJECTED) {
+                            throw new AssertionError("request " + i + " was " + result + " after the player left");
+                        }
+                        rejected = result == FlightRequestResult.REJECTED;
+                    }
+                };
+                threads[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                        work.run();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }, "FlightEngineStressTest-" + t);
+                threads[t].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            if (!errors.isEmpty()) {
+                fail(failure(engineName, seed, "a worker failed: " + errors.peek()), errors.peek());
+            }
+            assertEquals(null, workload.engine.snapshot(player), failure(engineName, seed, "state left after the leave"));
+            Set<UUID> dirty = new HashSet<>();
+            workload.services.drainDirty(dirty::add);
+            assertEquals(Set.of(), dirty, failure(engineName, seed, "dirty without state after the leave"));
+            workload.verify(seed, List.of());
+        }
+    }
+
+    // One script of random operations per thread, a pure function of the seed
+    private static List<List<Op>> scripts(long seed) {
+        List<List<Op>> scripts = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(seed * 31 + t);
+            List<Op> script = new ArrayList<>();
+            for (int i = 0; i < OPS_PER_THREAD; i++) {
+                script.add(randomOp(t, random, 1000));
+            }
+            scripts.add(script);
+        }
+        return scripts;
+    }
+
+    private static Op randomOp(int thread, Random random, int maxLease) {
+        int player = random.nextInt(PLAYERS);
+        int mod = random.nextInt(MODS);
+        int roll = random.nextInt(100);
+
+        if (roll < 40) {
+            int priority = (random.nextInt(10) == 0) ? FlightEngine.KEEP_PRIORITY : random.nextInt(4);
+            int lease = (random.nextInt(3) == 0) ? 1 + random.nextInt(maxLease) : 0;
+            return new Op(thread, Type.REQUEST, player, mod, priority, random.nextInt(4) == 0, lease);
+        }
+        if (roll < 60) {
+            return new Op(thread, Type.RELEASE, player, mod, 0, false, 0);
+        }
+        if (roll < 70) {
+            return new Op(thread, Type.CANCEL, player, mod, 0, false, 0);
+        }
+        if (roll < 75) {
+            return new Op(thread, Type.RENEW, player, mod, 0, false, 1 + random.nextInt(maxLease));
+        }
+        if (roll < 78) {
+            return Op.read(thread, Type.EVICT, player);
+        }
+        if (roll < 81) {
+            return Op.read(thread, Type.PURGE, player);
+        }
+        if (roll < 89) {
+            return Op.read(thread, Type.OWNER, player);
+        }
+        if (roll < 96) {
+            return Op.read(thread, Type.VIEW, player);
+        }
+        return Op.read(thread, Type.SNAPSHOT, player);
+    }
+
+    private static String failure(String engineName, long seed, String message) {
+        return String.format("%s engine, seed %d (replay with -Dflightapi.test.seed=%d): %s", engineName, seed, seed, message);
+    }
+
+    private static String lines(Collection<Op> ops) {
+        StringBuilder out = new StringBuilder();
+        for (Op op : ops) {
+            out.append("  ").append(op).append('\n');
+        }
+        return out.toString();
+    }
+
+    /**
+     * A fresh engine with its own services, so rounds don't share handles or lease clocks.
+     */
+    private static final class Workload {
+        final String engineName;
+        final FlightServices services = new FlightServices();
+        final AbstractFlightEngine engine;
+        final UUID[] players = new UUID[PLAYERS];
+        final FlightHistory history;
+        final Queue<Op> recorded = new ConcurrentLinkedQueue<>();
+
+        Workload(String engineName) {
+            this.engineName = engineName;
+            this.engine = engineName.equals("synchronized")
+                    ? new SynchronizedFlightEngine(services)
+                    : new ConcurrentFlightEngine(services);
+
+            for (int m = 0; m < MODS; m++) {
+                assertEquals(m, services.getModRegistry().register("mod" + m));
+            }
+            for (int p = 0; p < PLAYERS; p++) {
+                players[p] = new UUID(0x466c69676874L, p);
+            }
+            history = new FlightHistory(engine, services.getModRegistry(), players);
+        }
+
+        void run(Op op) {
+            history.run(op);
+            recorded.add(op);
+        }
+
+        /**
+         * Once every thread finished: a final snapshot of each player must be the last operation of a linearizable
+         * history, and the per-mod index and counters must agree with the per-player state.
+         */
+        void verify(long seed, List<List<Op>> scripts) {
+            for (int p = 0; p < PLAYERS; p++) {
+                run(Op.read(THREADS, Type.SNAPSHOT, p));
+            }
+
+            if (!scripts.isEmpty()) {
+                List<Op> violation = FlightHistory.findViolation(recorded, PLAYERS, MODS);
+                if (violation != null) {
+                    fail(failure(engineName, seed, "no sequential order explains this history of player "
+                            + violation.get(0).player + ":\n" + lines(violation)));
+                }
+            }
+
+            int tracked = 0;
+            int owned = 0;
+            int queued = 0;
+            for (UUID player : players) {
+                PlayerFlightSnapshot snapshot = engine.snapshot(player);
+                if (snapshot == null) {
+                    for (int m = 0; m < MODS; m++) {
+                        checkIndex(seed, m, player, false, false);
+                    }
+                    continue;
+                }
+
+                tracked++;
+                owned += (snapshot.owner() != null) ? 1 : 0;
+                queued += snapshot.queue().size();
+                List<String> queuedMods = snapshot.queuedModIds();
+                for (int m = 0; m < MODS; m++) {
+                    String modId = "mod" + m;
+                    checkIndex(seed, m, player, modId.equals(snapshot.ownerModId()), queuedMods.contains(modId));
+                }
+            }
+
+            assertEquals(tracked, engine.trackedPlayerCount(), failure(engineName, seed, "tracked players"));
+            assertEquals(tracked, engine.trackedPlayers().size(), failure(engineName, seed, "tracked player set"));
+            assertEquals(owned, engine.ownedPlayerCount(), failure(engineName, seed, "owned players"));
+            assertEquals(queued, engine.queuedRequestCount(), failure(engineName, seed, "queued requests"));
+        }
+
+        private void checkIndex(long seed, int mod, UUID player, boolean owns, boolean waits) {
+            if (engine.ownedPlayers(mod).contains(player) != owns || engine.queuedPlayers(mod).contains(player) != waits) {
+                fail(failure(engineName, seed, String.format("index of mod%d disagrees with %s: owns %b, queued %b",
+                        mod, player, owns, waits)));
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package dev.denismasterherobrine.flightapi.manager;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.denismasterherobrine.flightapi.api.FlightQueueView;
+import dev.denismasterherobrine.flightapi.api.FlightRequestResult;
+
+/**
+ * Operations run against a {@link FlightEngine}, with their results and when they started and finished, and a check
+ * that they are linearizable: that some order of them, consistent with which calls finished before others started,
+ * gives exactly the recorded results on a {@link FlightEngineModel}.
+ * Every operation touches one player, so each player's history is checked on its own.
+ */
+final class FlightHistory {
+    enum Type { REQUEST, RELEASE, CANCEL, RENEW, EVICT, PURGE, OWNER, VIEW, SNAPSHOT, TICK, RELOG }
+
+    static final class Op {
+        final int thread;
+        final Type type;
+        final int player;
+        final int mod;
+        final int priority;
+        final boolean preempt;
+        final int ticks;
+
+        long invoked;
+        long returned;
+        String result;
+
+        Op(int thread, Type type, int player, int mod, int priority, boolean preempt, int ticks) {
+            this.thread = thread;
+            this.type = type;
+            this.player = player;
+            this.mod = mod;
+            this.priority = priority;
+            this.preempt = preempt;
+            this.ticks = ticks;
+        }
+
+        static Op read(int thread, Type type, int player) {
+            return new Op(thread, type, player, FlightModRegistry.NONE, 0, false, 0);
+        }
+
+        @Override
+        public String toString() {
+            String args = switch (type) {
+                case REQUEST -> "mod" + mod + (priority == FlightEngine.KEEP_PRIORITY ? ", keep" : ", prio " + priority)
+                        + (preempt ? ", preempt" : "") + (ticks > 0 ? ", lease " + ticks : "");
+                case RENEW -> "mod" + mod + ", " + ticks;
+                case RELEASE, CANCEL -> "mod" + mod;
+                default -> "";
+            };
+            return String.format("[t%d %d..%d] %s(p%d%s) = %s", thread, invoked, returned, type, player,
+                    args.isEmpty() ? "" : ", " + args, result);
+        }
+    }
+
+    private final FlightEngine engine;
+    private final FlightModRegistry mods;
+    private final UUID[] players;
+    private final AtomicLong clock = new AtomicLong();
+
+    FlightHistory(FlightEngine engine, FlightModRegistry mods, UUID[] players) {
+        this.engine = engine;
+        this.mods = mods;
+        this.players = players;
+    }
+
+    // Runs the operation against the engine and records its result between two ticks of the history clock
+    void run(Op op) {
+        op.invoked = clock.incrementAndGet();
+        op.result = apply(op);
+        op.returned = clock.incrementAndGet();
+    }
+
+    private String apply(Op op) {
+        UUID player = players[op.player];
+        return switch (op.type) {
+            case REQUEST -> engine.request(op.mod, player, op.priority, op.preempt, op.ticks).name();
+            case RELEASE -> String.valueOf(engine.release(op.mod, player));
+            case CANCEL -> String.valueOf(engine.cancel(op.mod, player));
+            case RENEW -> String.valueOf(engine.renewLease(op.mod, player, op.ticks));
+            case EVICT -> String.valueOf(engine.evict(player));
+            case PURGE -> String.valueOf(engine.purge(player));
+            case OWNER -> String.valueOf(engine.owner(player));
+            case VIEW -> describe(engine.queueView(player));
+            case SNAPSHOT -> describe(engine.snapshot(player));
+            case TICK -> {
+                engine.tick(changed -> {});
+                yield "";
+            }
+            case RELOG -> {
+                PlayerFlightSnapshot snapshot = engine.snapshot(player);
+                if (snapshot != null) {
+                    engine.evict(player);
+                    engine.restore(snapshot);
+                }
+                yield "";
+            }
+        };
+    }
+
+    /**
+     * Applies the operation to the model.
+     * @return The result the engine must have recorded if the operation took effect at this point
+     */
+    static String apply(Op op, FlightEngineModel model) {
+        return switch (op.type) {
+            case REQUEST -> (model.request(op.mod, op.priority, op.preempt, op.ticks) ? FlightRequestResult.GRANTED
+                    : FlightRequestResult.QUEUED).name();
+            case RELEASE -> String.valueOf(model.release(op.mod));
+            case CANCEL -> String.valueOf(model.cancel(op.mod));
+            case RENEW -> String.valueOf(model.renew(op.mod, op.ticks));
+            case EVICT, PURGE -> String.valueOf(model.drop());
+            case OWNER -> String.valueOf(model.owner());
+            case VIEW -> describeView(model.isTracked() ? model.owner() : FlightModRegistry.NONE, model.queued());
+            case SNAPSHOT -> describeSnapshot(model.snapshot());
+            case TICK -> {
+                model.tick();
+                yield "";
+            }
+            case RELOG -> {
+                model.relog();
+                yield "";
+            }
+        };
+    }
+
+    private String describe(FlightQueueView view) {
+        int[] queue = new int[view.queue().size()];
+        for (int i = 0; i < queue.length; i++) {
+            queue[i] = mods.lookup(view.queue().get(i));
+        }
+        int owner = (view.owner() == null) ? FlightModRegistry.NONE : mods.lookup(view.owner());
+        requireDistinct(owner, queue);
+        return describeView(owner, queue);
+    }
+
+    private String describe(PlayerFlightSnapshot snapshot) {
+        if (snapshot == null) {
+            return describeSnapshot(null);
+        }
+
+        List<int[]> requests = new ArrayList<>();
+        if (snapshot.owner() != null) {
+            requests.add(describe(snapshot.owner()));
+        }
+        int[] queue = new int[snapshot.queue().size()];
+        for (int i = 0; i < queue.length; i++) {
+            int[] request = describe(snapshot.queue().get(i));
+            queue[i] = request[0];
+            requests.add(request);
+        }
+
+        requireDistinct((snapshot.owner() == null) ? FlightModRegistry.NONE : requests.get(0)[0], queue);
+        return describeSnapshot(requests);
+    }
+
+    // One owner that isn't also waiting, and no request queued twice, in every state any thread ever saw
+    private static void requireDistinct(int owner, int[] queue) {
+        Set<Integer> seen = new HashSet<>();
+        if (owner != FlightModRegistry.NONE) {
+            seen.add(owner);
+        }
+        for (int mod : queue) {
+            if (!seen.add(mod)) {
+                throw new AssertionError("mod" + mod + " holds two places: owner mod" + owner + ", queue " + Arrays.toString(queue));
+            }
+        }
+    }
+
+    private int[] describe(PlayerFlightSnapshot.Request request) {
+        return new int[] {mods.lookup(request.modId()), request.priority(), request.leaseTicks()};
+    }
+
+    private static String describeView(int owner, int[] queue) {
+        return owner + " " + Arrays.toString(queue);
+    }
+
+    private static String describeSnapshot(List<int[]> requests) {
+        if (requests == null) {
+            return "untracked";
+        }
+
+        StringJoiner joiner = new StringJoiner(", ", "[", "]");
+        for (int[] request : requests) {
+            joiner.add(Arrays.toString(request));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * @return null if every player's operations are linearizable, otherwise the operations of the first player
+     * whose history isn't, in the order they started
+     */
+    static List<Op> findViolation(Collection<Op> history, int players, int modCount) {
+        List<List<Op>> perPlayer = new ArrayList<>();
+        for (int i = 0; i < players; i++) {
+            perPlayer.add(new ArrayList<>());
+        }
+        for (Op op : history) {
+            perPlayer.get(op.player).add(op);
+        }
+
+        for (List<Op> ops : perPlayer) {
+            ops.sort(Comparator.comparingLong(op -> op.invoked));
+            if (!linearizable(ops, modCount)) {
+                return ops;
+            }
+        }
+        return null;
+    }
+
+    // Depth-first search over the orders allowed by real time, skipping model states already explored (Wing & Gong, Lowe)
+    private static boolean linearizable(List<Op> ops, int modCount) {
+        Op[] sorted = ops.toArray(new Op[0]);
+        return search(new FlightEngineModel(modCount), new BitSet(sorted.length), sorted, new HashSet<>());
+    }
+
+    private static boolean search(FlightEngineModel model, BitSet done, Op[] ops, Set<String> explored) {
+        int first = done.nextClearBit(0);
+        if (first >= ops.length) {
+            return true;
+        }
+
+        // Only operations that started before the earliest pending one returned may take effect next
+        long earliestReturn = Long.MAX_VALUE;
+        for (int i = first; i < ops.length; i = done.nextClearBit(i + 1)) {
+            earliestReturn = Math.min(earliestReturn, ops[i].returned);
+        }
+
+        for (int i = first; i < ops.length && ops[i].invoked < earliestReturn; i = done.nextClearBit(i + 1)) {
+            FlightEngineModel next = model.copy();
+            if (!apply(ops[i], next).equals(ops[i].result)) {
+                continue;
+            }
+
+            done.set(i);
+            if (explored.add(done + next.key()) && search(next, done, ops, explored)) {
+                return true;
+            }
+            done.clear(i);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,68 @@
+package dev.denismasterherobrine.flightapi.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import dev.denismasterherobrine.flightapi.manager.ConcurrentFlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightEngine;
+import dev.denismasterherobrine.flightapi.manager.FlightServices;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Saving around logouts: what a leaving player owned must survive changes that race the eviction, and a file is only
+ * ever deleted for a purged player.
+ */
+class FlightStoreTest {
+    private static final UUID PLAYER = new UUID(0x466c69676874L, 1);
+
+    @Test
+    void lateChangesAfterALeaveKeepTheSavedState() throws IOException {
+        Path directory = Files.createTempDirectory("flightapi-store");
+        try {
+            FlightServices services = new FlightServices();
+            int jetpack = services.getModRegistry().register("jetpack");
+            int spell = services.getModRegistry().register("spell");
+
+            FlightEngine engine = new ConcurrentFlightEngine(services);
+            FlightStore store = new FlightStore(engine, services, directory);
+            engine.request(jetpack, PLAYER, FlightEngine.DEFAULT_PRIORITY, false, 0);
+            engine.request(spell, PLAYER, FlightEngine.DEFAULT_PRIORITY, false, 0);
+
+            assertTrue(engine.evict(PLAYER, store::saveEvicted), "player had state");
+            // A request or release from another thread that still marked the player after the eviction
+            services.markDirty(PLAYER);
+            store.close();
+            assertTrue(Files.exists(directory.resolve(PLAYER + ".dat")), "saved state deleted after the leave");
+
+            FlightEngine rejoined = new ConcurrentFlightEngine(services);
+            FlightStore reloaded = new FlightStore(rejoined, services, directory);
+            reloaded.loadPlayer(PLAYER);
+            assertEquals("jetpack", rejoined.snapshot(PLAYER).ownerModId());
+            assertEquals(List.of("spell"), rejoined.snapshot(PLAYER).queuedModIds());
+
+            rejoined.purge(PLAYER);
+            reloaded.close();
+            assertFalse(Files.exists(directory.resolve(PLAYER + ".dat")), "purged state still saved");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
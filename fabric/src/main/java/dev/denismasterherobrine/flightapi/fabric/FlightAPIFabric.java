@@ -1,10 +1,21 @@
 package dev.denismasterherobrine.flightapi.fabric;
 
 import dev.denismasterherobrine.flightapi.command.FlightAPICommand;
+import dev.denismasterherobrine.flightapi.lifecycle.FlightLifecycle;
+import dev.denismasterherobrine.flightapi.network.FlightNetworking;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
 import net.fabricmc.api.ModInitializer;
 
 import dev.denismasterherobrine.flightapi.FlightMain;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.server.network.ServerPlayerEntity;
 
 public final class FlightAPIFabric implements ModInitializer {
     @Override
@@ -16,6 +27,27 @@ public final class FlightAPIFabric implements ModInitializer {
         // Run our common setup.
         FlightMain.init();
 
+        PayloadTypeRegistry.playS2C().register(FlightSyncPayload.ID, FlightSyncPayload.CODEC);
+        FlightNetworking.setChannel(new FlightNetworking.Channel() {
+            @Override
+            public boolean canSend(ServerPlayerEntity player) {
+                return ServerPlayNetworking.canSend(player, FlightSyncPayload.ID);
+            }
+
+            @Override
+            public void send(ServerPlayerEntity player, FlightSyncPayload payload) {
+                ServerPlayNetworking.send(player, payload);
+            }
+        });
+
         CommandRegistrationCallback.EVENT.register((dispatcher, registryAccess, environment) -> FlightAPICommand.register(dispatcher));
+
+        ServerLifecycleEvents.SERVER_STARTING.register(FlightLifecycle::onServerStarting);
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> FlightLifecycle.onPlayerJoin(handler.getPlayer()));
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> FlightLifecycle.onPlayerLeave(handler.getPlayer()));
+        ServerPlayerEvents.AFTER_RESPAWN.register((oldPlayer, newPlayer, alive) -> FlightLifecycle.onPlayerRespawn(newPlayer));
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register((player, origin, destination) -> FlightLifecycle.onPlayerChangeDimension(player));
+        ServerTickEvents.END_SERVER_TICK.register(server -> FlightLifecycle.onServerTickEnd());
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> FlightLifecycle.onServerStopped());
     }
 }
@@ -0,0 +1,17 @@
+package dev.denismasterherobrine.flightapi.fabric;
+
+import dev.denismasterherobrine.flightapi.client.FlightClientSync;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
+import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
+
+public final class FlightAPIFabricClient implements ClientModInitializer {
+    @Override
+    public void onInitializeClient() {
+        // Payload handlers run on the client thread
+        ClientPlayNetworking.registerGlobalReceiver(FlightSyncPayload.ID, (payload, context) -> FlightClientSync.apply(payload));
+        // May be called off the client thread
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> client.execute(FlightClientSync::reset));
+    }
+}
@@ -2,20 +2,92 @@ package dev.denismasterherobrine.flightapi.neoforge;
 
 import dev.denismasterherobrine.flightapi.FlightMain;
 import dev.denismasterherobrine.flightapi.command.FlightAPICommand;
+import dev.denismasterherobrine.flightapi.lifecycle.FlightLifecycle;
+import dev.denismasterherobrine.flightapi.network.FlightNetworking;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.network.PacketDistributor;
+import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 
 @Mod(FlightMain.MOD_ID)
 public final class FlightAPINeoForge {
     public FlightAPINeoForge(IEventBus modBus) {
         // Run our common setup.
         FlightMain.init();
+        modBus.addListener(this::onRegisterPayloadHandlers);
+        FlightNetworking.setChannel(new FlightNetworking.Channel() {
+            @Override
+            public boolean canSend(ServerPlayerEntity player) {
+                return player.networkHandler.hasChannel(FlightSyncPayload.ID);
+            }
+
+            @Override
+            public void send(ServerPlayerEntity player, FlightSyncPayload payload) {
+                PacketDistributor.sendToPlayer(player, payload);
+            }
+        });
         NeoForge.EVENT_BUS.addListener(this::onRegisterCommands);
+        NeoForge.EVENT_BUS.addListener(this::onServerStarting);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedIn);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerLoggedOut);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerRespawn);
+        NeoForge.EVENT_BUS.addListener(this::onPlayerChangedDimension);
+        NeoForge.EVENT_BUS.addListener(this::onServerTickEnd);
+        NeoForge.EVENT_BUS.addListener(this::onServerStopped);
+    }
+
+    // Optional, so vanilla clients and clients without FlightAPI can still join and get the vanilla abilities packet
+    private void onRegisterPayloadHandlers(RegisterPayloadHandlersEvent event) {
+        event.registrar("1")
+                .optional()
+                .playToClient(FlightSyncPayload.ID, FlightSyncPayload.CODEC, FlightAPINeoForgeClient::onFlightSync);
     }
 
     private void onRegisterCommands(RegisterCommandsEvent event) {
         FlightAPICommand.register(event.getDispatcher());
     }
+
+    private void onServerStarting(ServerStartingEvent event) {
+        FlightLifecycle.onServerStarting(event.getServer());
+    }
+
+    private void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity player) {
+            FlightLifecycle.onPlayerJoin(player);
+        }
+    }
+
+    private void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity player) {
+            FlightLifecycle.onPlayerLeave(player);
+        }
+    }
+
+    private void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity player) {
+            FlightLifecycle.onPlayerRespawn(player);
+        }
+    }
+
+    private void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity player) {
+            FlightLifecycle.onPlayerChangeDimension(player);
+        }
+    }
+
+    private void onServerTickEnd(ServerTickEvent.Post event) {
+        FlightLifecycle.onServerTickEnd();
+    }
+
+    private void onServerStopped(ServerStoppedEvent event) {
+        FlightLifecycle.onServerStopped();
+    }
 }
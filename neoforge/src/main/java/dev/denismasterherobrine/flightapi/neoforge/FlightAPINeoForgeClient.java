@@ -0,0 +1,27 @@
+package dev.denismasterherobrine.flightapi.neoforge;
+
+import dev.denismasterherobrine.flightapi.FlightMain;
+import dev.denismasterherobrine.flightapi.client.FlightClientSync;
+import dev.denismasterherobrine.flightapi.network.FlightSyncPayload;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.fml.common.Mod;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+// Client-only entry point; the payload handler lives here so client classes are never touched on a dedicated server
+@Mod(value = FlightMain.MOD_ID, dist = Dist.CLIENT)
+public final class FlightAPINeoForgeClient {
+    public FlightAPINeoForgeClient() {
+        NeoForge.EVENT_BUS.addListener(FlightAPINeoForgeClient::onLoggingOut);
+    }
+
+    // Payload handlers run on the client thread
+    static void onFlightSync(FlightSyncPayload payload, IPayloadContext context) {
+        FlightClientSync.apply(payload);
+    }
+
+    private static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        FlightClientSync.reset();
+    }
+}